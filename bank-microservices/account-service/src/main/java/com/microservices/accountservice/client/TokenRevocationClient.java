@@ -0,0 +1,14 @@
+package com.microservices.accountservice.client;
+
+import com.microservices.accountservice.dto.TokenRevocationFeedDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+
+@FeignClient(name = "user-service", contextId = "tokenRevocationClient", url = "http://localhost:8085/api/v1/auth")
+public interface TokenRevocationClient {
+
+    @GetMapping("/revocations")
+    TokenRevocationFeedDTO getRevocations(@RequestParam("since") long since, @RequestParam("limit") int limit);
+}
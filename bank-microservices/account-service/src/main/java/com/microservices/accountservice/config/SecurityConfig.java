@@ -46,6 +46,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/account/update").authenticated()
                         .requestMatchers(("/api/v1/transaction/add")).authenticated()
                         .requestMatchers(("/api/v1/transaction/withdraw")).authenticated()
+                        .requestMatchers(("/api/v1/transaction/batch")).authenticated()
+                        .requestMatchers(("/api/v1/transaction/transfer")).authenticated()
+                        .requestMatchers(("/api/v1/transaction/history")).authenticated()
+                        .requestMatchers(("/api/v1/transaction/statement")).authenticated()
                         .anyRequest().permitAll()
                 )
                 .exceptionHandling(exception -> exception
@@ -0,0 +1,23 @@
+package com.microservices.accountservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC configuration.
+ * Statement exports are streamed asynchronously and can take minutes for large accounts,
+ * far longer than the default async request timeout of the servlet container.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Value("${transaction.statement.timeout-ms:600000}")
+    private long statementTimeoutMillis;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(statementTimeoutMillis);
+    }
+}
@@ -2,6 +2,7 @@ package com.microservices.accountservice.controller;
 
 import com.microservices.accountservice.dto.*;
 import com.microservices.accountservice.service.AccountService;
+import com.microservices.accountservice.util.OptimisticLockRetry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -24,6 +25,7 @@ import java.util.Optional;
 public class AccountController {
 
     private final AccountService accountService;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     /**
      * Gets the current logged-in user details.
@@ -65,11 +67,12 @@ public class AccountController {
     @Operation(summary = "Update an account", description = "Updates the details of an existing account.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Account updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Account not found")
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "409", description = "Account was modified concurrently")
     })
     @PutMapping("/update")
     public ResponseEntity<AccountReadOnlyDTO> updateAccount(@Valid @RequestBody AccountUpdateDTO dto) {
-        AccountReadOnlyDTO accountReadOnlyDTO = accountService.updateAccount(dto);
+        AccountReadOnlyDTO accountReadOnlyDTO = optimisticLockRetry.execute("update", () -> accountService.updateAccount(dto));
         return new ResponseEntity<>(accountReadOnlyDTO, HttpStatus.OK);
     }
 
@@ -1,18 +1,37 @@
 package com.microservices.accountservice.controller;
 
+import com.microservices.accountservice.dto.TransactionBatchResultDTO;
 import com.microservices.accountservice.dto.TransactionDTO;
+import com.microservices.accountservice.dto.TransactionHistoryPageDTO;
+import com.microservices.accountservice.dto.TransferDTO;
+import com.microservices.accountservice.enums.StatementFormat;
+import com.microservices.accountservice.enums.TransactionDirection;
+import com.microservices.accountservice.service.IdempotencyService;
+import com.microservices.accountservice.service.TransactionBatchService;
 import com.microservices.accountservice.service.TransactionService;
+import com.microservices.accountservice.util.AccountLaneExecutor;
+import com.microservices.accountservice.util.StatementWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Controller for managing transaction-related operations.
+ * Deposits and withdrawals run on the lane of their account, so requests for the same account are processed one at a time.
+ * Money movements update balances with atomic statements instead of versioned read-modify-writes,
+ * so they do not need the optimistic lock retry of account updates.
  */
 @RestController
 @RequestMapping("/api/v1/transaction")
@@ -21,38 +40,157 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionBatchService transactionBatchService;
+    private final AccountLaneExecutor accountLaneExecutor;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Adds money to the account.
      *
      * @param dto The transaction details for adding money.
+     * @param idempotencyKey optional key that makes retries of the request replay its first outcome.
      * @return ResponseEntity with HTTP status OK if the transaction is successful.
      */
     @Operation(summary = "Add money to account", description = "Adds a specified amount of money to the account.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Money added successfully"),
-            @ApiResponse(responseCode = "400", description = "Limit exceeded or account not found")
+            @ApiResponse(responseCode = "400", description = "Limit exceeded or account not found"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key reused for a different request"),
+            @ApiResponse(responseCode = "503", description = "Too many operations are waiting for the account")
     })
     @PostMapping("/add")
-    public ResponseEntity<Void> addMoney(@RequestBody TransactionDTO dto) {
-        transactionService.addMoney(dto);
-        return new ResponseEntity<>(HttpStatus.OK);
+    public ResponseEntity<Void> addMoney(@RequestBody TransactionDTO dto,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        HttpStatus status = accountLaneExecutor.execute(dto.getAccountNumber(), () -> idempotencyService.execute(idempotencyKey, "add",
+                () -> transactionService.addMoney(dto), dto.getAccountNumber(), dto.getAmount()));
+        return new ResponseEntity<>(status);
     }
 
     /**
      * Withdraws money from the account.
      *
      * @param dto The transaction details for withdrawing money.
+     * @param idempotencyKey optional key that makes retries of the request replay its first outcome.
      * @return ResponseEntity with HTTP status OK if the transaction is successful.
      */
     @Operation(summary = "Withdraw money from account", description = "Withdraws a specified amount of money from the account.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Money withdrawn successfully"),
-            @ApiResponse(responseCode = "400", description = "Limit exceeded, insufficient balance, or account not found")
+            @ApiResponse(responseCode = "400", description = "Limit exceeded, insufficient balance, or account not found"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key reused for a different request"),
+            @ApiResponse(responseCode = "503", description = "Too many operations are waiting for the account")
     })
     @PostMapping("/withdraw")
-    public ResponseEntity<Void> withdrawMoney(@RequestBody TransactionDTO dto) {
-        transactionService.withdrawMoney(dto);
-        return new ResponseEntity<>(HttpStatus.OK);
+    public ResponseEntity<Void> withdrawMoney(@RequestBody TransactionDTO dto,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        HttpStatus status = accountLaneExecutor.execute(dto.getAccountNumber(), () -> idempotencyService.execute(idempotencyKey, "withdraw",
+                () -> transactionService.withdrawMoney(dto), dto.getAccountNumber(), dto.getAmount()));
+        return new ResponseEntity<>(status);
+    }
+
+    /**
+     * Transfers money between two accounts.
+     * Transfers lock both accounts in the database, so they do not run on a lane.
+     *
+     * @param dto the transfer details.
+     * @param idempotencyKey optional key that makes retries of the request replay its first outcome.
+     * @return ResponseEntity with the status of the operation.
+     */
+    @Operation(summary = "Transfer money", description = "Transfers money from one account to another in a single transaction.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Money transferred successfully"),
+            @ApiResponse(responseCode = "400", description = "Limit exceeded, insufficient balance, or account not found"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key reused for a different request")
+    })
+    @PostMapping("/transfer")
+    public ResponseEntity<Void> transfer(@RequestBody TransferDTO dto,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        HttpStatus status = idempotencyService.execute(idempotencyKey, "transfer",
+                () -> transactionService.transfer(dto.getFromAccountNumber(), dto.getToAccountNumber(), dto.getAmount()),
+                dto.getFromAccountNumber(), dto.getToAccountNumber(), dto.getAmount());
+        return new ResponseEntity<>(status);
+    }
+
+    /**
+     * Books a batch of deposits and withdrawals.
+     *
+     * @param dtos the transactions, with negative amounts for withdrawals.
+     * @return ResponseEntity containing the result of each transaction.
+     */
+    @Operation(summary = "Book a batch of transactions", description = "Books many deposits (positive amounts) and withdrawals (negative amounts) at once, reporting each one as accepted or rejected.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed"),
+            @ApiResponse(responseCode = "400", description = "Batch is empty or too large")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResultDTO> processBatch(@RequestBody List<TransactionDTO> dtos) {
+        TransactionBatchResultDTO result = transactionBatchService.processBatch(dtos);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * Gets a page of the transaction history of the current logged-in user's account, newest first.
+     *
+     * @param from the earliest transaction date to include.
+     * @param to the latest transaction date to include, now if not given.
+     * @param direction the direction to include, both if not given.
+     * @param cursorDate the nextCursorDate of the previous page.
+     * @param cursorId the nextCursorId of the previous page.
+     * @param size the maximum number of transactions of the page.
+     * @return ResponseEntity containing the page and the cursor of the next page.
+     */
+    @Operation(summary = "Get transaction history", description = "Fetches the transactions of the current user's account page by page, newest first. Pass the cursor of a page to get the next one.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transaction history fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid page size or cursor"),
+            @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    @GetMapping("/history")
+    public ResponseEntity<TransactionHistoryPageDTO> getHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionDirection direction,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorDate,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "50") int size) {
+        TransactionHistoryPageDTO page = transactionService.getHistory(
+                from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0),
+                to != null ? to : LocalDateTime.now(),
+                direction, cursorDate, cursorId, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Exports the statement of the current logged-in user's account, oldest first.
+     * The rows are streamed from the database to the response as they are read.
+     *
+     * @param from the earliest transaction date to include.
+     * @param to the latest transaction date to include, now if not given.
+     * @param format the file format, CSV if not given.
+     * @return ResponseEntity streaming the statement.
+     */
+    @Operation(summary = "Export statement", description = "Streams the transactions of the current user's account in a date range as CSV or NDJSON.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statement exported successfully"),
+            @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    @GetMapping("/statement")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") StatementFormat format) {
+        // Resolve the account on the request thread, the body is written on an async thread
+        Long accountId = transactionService.getCurrentAccountId();
+        LocalDateTime start = from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+
+        StreamingResponseBody body = outputStream -> {
+            long rows = transactionService.writeStatement(accountId, start, end, new StatementWriter(outputStream, format));
+            log.info("Exported statement of account {} with {} rows", accountId, rows);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement." + format.getExtension() + "\"")
+                .body(body);
     }
 }
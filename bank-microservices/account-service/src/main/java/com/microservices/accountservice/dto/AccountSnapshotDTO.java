@@ -0,0 +1,18 @@
+package com.microservices.accountservice.dto;
+
+import com.microservices.accountservice.enums.MemberRanking;
+import lombok.Value;
+
+/**
+ * Immutable identity of an account, as cached by account number.
+ * It carries no balance, so concurrent money movements never make it stale.
+ */
+@Value
+public class AccountSnapshotDTO {
+
+    Long id;
+
+    String username;
+
+    MemberRanking memberRanking;
+}
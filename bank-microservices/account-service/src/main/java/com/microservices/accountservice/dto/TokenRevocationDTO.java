@@ -0,0 +1,21 @@
+package com.microservices.accountservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for a revoked token")
+public class TokenRevocationDTO {
+
+    @Schema(description = "Hex SHA-256 digest of the revoked token", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String tokenHash;
+
+    @Schema(description = "Expiry of the revoked token", example = "2021-07-01T11:00:00")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,24 @@
+package com.microservices.accountservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for the tokens revoked since a version")
+public class TokenRevocationFeedDTO {
+
+    @Schema(description = "Version to ask for the next revocations with", example = "42")
+    private long version;
+
+    @Schema(description = "Whether more revocations are available after this version")
+    private boolean hasMore;
+
+    @Schema(description = "Tokens revoked after the requested version, oldest first, without expired ones")
+    private List<TokenRevocationDTO> revocations;
+}
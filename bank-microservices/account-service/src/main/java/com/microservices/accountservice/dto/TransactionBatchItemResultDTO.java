@@ -0,0 +1,38 @@
+package com.microservices.accountservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(description = "Result of a single item of a transaction batch")
+public class TransactionBatchItemResultDTO {
+
+    @Schema(description = "Position of the item in the batch", example = "0")
+    private int index;
+
+    @Schema(description = "Account number of the item", example = "123456789")
+    private String accountNumber;
+
+    @Schema(description = "Amount of the item, negative for withdrawals", example = "-50.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Whether the item was booked", example = "true")
+    private boolean accepted;
+
+    @Schema(description = "Reason the item was rejected", example = "Daily limit exceeded")
+    private String message;
+
+    public static TransactionBatchItemResultDTO accepted(TransactionDTO item) {
+        return new TransactionBatchItemResultDTO(0, item.getAccountNumber(), item.getAmount(), true, null);
+    }
+
+    public static TransactionBatchItemResultDTO rejected(TransactionDTO item, String message) {
+        return new TransactionBatchItemResultDTO(0, item.getAccountNumber(), item.getAmount(), false, message);
+    }
+}
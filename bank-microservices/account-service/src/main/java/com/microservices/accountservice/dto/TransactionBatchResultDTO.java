@@ -0,0 +1,24 @@
+package com.microservices.accountservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(description = "Result of a transaction batch")
+public class TransactionBatchResultDTO {
+
+    @Schema(description = "Number of booked items", example = "998")
+    private int accepted;
+
+    @Schema(description = "Number of rejected items", example = "2")
+    private int rejected;
+
+    @Schema(description = "Results of the items, in the order of the batch")
+    private List<TransactionBatchItemResultDTO> results;
+}
@@ -0,0 +1,25 @@
+package com.microservices.accountservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(description = "Transaction history entry data transfer object")
+public class TransactionHistoryDTO {
+
+    @Schema(description = "Transaction id", example = "1")
+    private Long id;
+
+    @Schema(description = "Transaction date and time", example = "2024-07-04T10:15:30")
+    private LocalDateTime transactionDate;
+
+    @Schema(description = "Transaction amount, negative for withdrawals", example = "-50.00")
+    private BigDecimal transactionAmount;
+}
@@ -0,0 +1,25 @@
+package com.microservices.accountservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(description = "Page of the transaction history, newest first")
+public class TransactionHistoryPageDTO {
+
+    @Schema(description = "Transactions of the page")
+    private List<TransactionHistoryDTO> transactions;
+
+    @Schema(description = "Cursor date to pass for the next page, null on the last page", example = "2024-07-04T10:15:30")
+    private LocalDateTime nextCursorDate;
+
+    @Schema(description = "Cursor id to pass for the next page, null on the last page", example = "1234")
+    private Long nextCursorId;
+}
@@ -0,0 +1,37 @@
+package com.microservices.accountservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Deposit and withdrawal totals of an account over the daily, weekly and monthly limit windows.
+ * Withdrawal totals are positive amounts.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(description = "Deposit and withdrawal totals of the limit windows")
+public class TransactionWindowTotalsDTO {
+
+    @Schema(description = "Deposits of the current day", example = "250.00")
+    private BigDecimal dailyDepositTotal = BigDecimal.ZERO;
+
+    @Schema(description = "Withdrawals of the current day", example = "100.00")
+    private BigDecimal dailyWithdrawTotal = BigDecimal.ZERO;
+
+    @Schema(description = "Deposits of the last 7 days", example = "1250.00")
+    private BigDecimal weeklyDepositTotal = BigDecimal.ZERO;
+
+    @Schema(description = "Withdrawals of the last 7 days", example = "700.00")
+    private BigDecimal weeklyWithdrawTotal = BigDecimal.ZERO;
+
+    @Schema(description = "Deposits of the last 30 days", example = "5000.00")
+    private BigDecimal monthlyDepositTotal = BigDecimal.ZERO;
+
+    @Schema(description = "Withdrawals of the last 30 days", example = "3200.00")
+    private BigDecimal monthlyWithdrawTotal = BigDecimal.ZERO;
+}
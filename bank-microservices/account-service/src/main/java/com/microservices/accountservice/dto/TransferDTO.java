@@ -0,0 +1,24 @@
+package com.microservices.accountservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(description = "Transfer data transfer object")
+public class TransferDTO {
+
+    @Schema(description = "Account number to transfer from", example = "123456789")
+    private String fromAccountNumber;
+
+    @Schema(description = "Account number to transfer to", example = "987654321")
+    private String toAccountNumber;
+
+    @Schema(description = "Amount to transfer", example = "100.00")
+    private BigDecimal amount;
+}
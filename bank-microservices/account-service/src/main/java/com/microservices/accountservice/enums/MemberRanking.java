@@ -75,4 +75,21 @@ public enum MemberRanking {
         this.monthlyWithdrawLimit = monthlyLimit.divide(new BigDecimal("2"), RoundingMode.HALF_UP);
         this.monthlyDepositLimit = monthlyLimit.divide(new BigDecimal("2"), RoundingMode.HALF_UP);
     }
+
+    /**
+     * Finds the member ranking that matches an account balance.
+     *
+     * @param balance The balance of the account.
+     * @return STANDARD up to 5000, METAL up to 100000, PRO up to 200000 and ULTIMATE above.
+     */
+    public static MemberRanking forBalance(BigDecimal balance) {
+        if (balance.compareTo(new BigDecimal("5000")) <= 0) {
+            return STANDARD;
+        } else if (balance.compareTo(new BigDecimal("100000")) <= 0) {
+            return METAL;
+        } else if (balance.compareTo(new BigDecimal("200000")) <= 0) {
+            return PRO;
+        }
+        return ULTIMATE;
+    }
 }
@@ -0,0 +1,29 @@
+package com.microservices.accountservice.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+/**
+ * Enumeration representing the file formats of a statement export.
+ */
+@Getter
+@Schema(description = "Enumeration representing the file formats of a statement export.")
+public enum StatementFormat {
+
+    @Schema(description = "Comma separated values with a header row.")
+    CSV("text/csv", "csv"),
+
+    @Schema(description = "One JSON object per line.")
+    NDJSON("application/x-ndjson", "ndjson");
+
+    @Schema(description = "Content type of the export.")
+    private final String contentType;
+
+    @Schema(description = "File extension of the export.")
+    private final String extension;
+
+    StatementFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+}
@@ -0,0 +1,16 @@
+package com.microservices.accountservice.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Enumeration representing the direction of a transaction.
+ */
+@Schema(description = "Enumeration representing the direction of a transaction.")
+public enum TransactionDirection {
+
+    @Schema(description = "Money added to the account.")
+    DEPOSIT,
+
+    @Schema(description = "Money taken from the account.")
+    WITHDRAWAL
+}
@@ -0,0 +1,16 @@
+package com.microservices.accountservice.exception;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serial;
+
+@Schema(description = "Exception for an operation rejected because too many operations are waiting for the same account")
+public class AccountBusyException extends RuntimeException{
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public AccountBusyException(String message){
+        super(message);
+    }
+}
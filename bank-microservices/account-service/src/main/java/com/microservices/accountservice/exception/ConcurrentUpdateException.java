@@ -0,0 +1,20 @@
+package com.microservices.accountservice.exception;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serial;
+
+@Schema(description = "Exception for an update that kept conflicting with concurrent updates")
+public class ConcurrentUpdateException extends RuntimeException{
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ConcurrentUpdateException(String message){
+        super(message);
+    }
+
+    public ConcurrentUpdateException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -2,6 +2,7 @@ package com.microservices.accountservice.exception;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
@@ -52,6 +53,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public final ResponseEntity<ErrorDetails> handleConcurrentUpdateException(ConcurrentUpdateException ex, WebRequest request) {
+        List<String> details = new ArrayList<>();
+        details.add(ex.getLocalizedMessage());
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), "Concurrent Update", request.getDescription(false), details);
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(AccountBusyException.class)
+    public final ResponseEntity<ErrorDetails> handleAccountBusyException(AccountBusyException ex, WebRequest request) {
+        List<String> details = new ArrayList<>();
+        details.add(ex.getLocalizedMessage());
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), "Service Unavailable", request.getDescription(false), details);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(errorDetails);
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public final ResponseEntity<ErrorDetails> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex, WebRequest request) {
+        List<String> details = new ArrayList<>();
+        details.add(ex.getLocalizedMessage());
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), "Idempotency Key Conflict", request.getDescription(false), details);
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(IdAlreadyExistsException.class)
     public final ResponseEntity<ErrorDetails> handleIdAlreadyExistsException(IdAlreadyExistsException ex, WebRequest request) {
         List<String> details = new ArrayList<>();
@@ -0,0 +1,16 @@
+package com.microservices.accountservice.exception;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serial;
+
+@Schema(description = "Exception for an idempotency key reused with a different request")
+public class IdempotencyKeyConflictException extends RuntimeException{
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyConflictException(String message){
+        super(message);
+    }
+}
@@ -13,13 +13,17 @@ import java.util.List;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@Table(name = "account", uniqueConstraints = {
+        @UniqueConstraint(name = "ux_account_username", columnNames = "username"),
+        @UniqueConstraint(name = "ux_account_account_number", columnNames = "account_number")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Schema(name = "Account", description = "Entity for storing account information")
 public class Account extends AbstractEntity {
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     @Schema(description = "Username of the account", example = "admin")
     private String username;
 
@@ -27,7 +31,7 @@ public class Account extends AbstractEntity {
     @Schema(description = "Email of the account", example = "filip@gmail.com")
     private String email;
 
-    @Column(name = "account_number", unique = true, nullable = false)
+    @Column(name = "account_number", nullable = false)
     @Schema(description = "Account number", example = "1234567890")
     private String accountNumber;
 
@@ -0,0 +1,40 @@
+package com.microservices.accountservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a transaction request sent with an Idempotency-Key header.
+ * Written in the same database transaction as the booking it belongs to.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "idempotency_record",
+        uniqueConstraints = @UniqueConstraint(name = "ux_idempotency_record_username_key", columnNames = {"username", "idempotency_key"}),
+        indexes = @Index(name = "ix_idempotency_record_created_date", columnList = "created_date"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(name = "IdempotencyRecord", description = "Entity for storing the outcome of idempotent requests")
+public class IdempotencyRecord extends AbstractEntity {
+
+    @Column(name = "username", nullable = false)
+    @Schema(description = "User that sent the request, keys are only unique per user", example = "johndoe")
+    private String username;
+
+    @Column(name = "idempotency_key", nullable = false)
+    @Schema(description = "Idempotency key sent by the client", example = "5f0c8e1a-4c1b-4c7e-9d3a-2b8f6e7a9c10")
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    @Schema(description = "SHA-256 of the operation, caller and request the key was first used for")
+    private String requestHash;
+
+    @Column(name = "response_status", nullable = false)
+    @Schema(description = "HTTP status of the stored outcome", example = "200")
+    private int responseStatus;
+}
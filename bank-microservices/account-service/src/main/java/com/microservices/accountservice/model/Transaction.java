@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@Table(name = "transaction",
+        indexes = @Index(name = "ix_transaction_account_date_amount", columnList = "account_id, transaction_date, transaction_amount"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
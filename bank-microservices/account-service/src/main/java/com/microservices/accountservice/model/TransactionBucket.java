@@ -0,0 +1,43 @@
+package com.microservices.accountservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running deposit and withdrawal totals of an account for a single calendar day.
+ * Kept in step with the transaction log so that limit checks never have to scan it.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "transaction_bucket",
+        uniqueConstraints = @UniqueConstraint(name = "ux_transaction_bucket_account_date", columnNames = {"account_id", "bucket_date"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(name = "TransactionBucket", description = "Entity for storing daily transaction totals of an account")
+public class TransactionBucket extends AbstractEntity {
+
+    @Column(name = "bucket_date", nullable = false)
+    @Schema(description = "Day the totals belong to", example = "2024-07-04")
+    private LocalDate bucketDate;
+
+    @Column(name = "deposit_total", nullable = false, precision = 19, scale = 4)
+    @Schema(description = "Sum of the deposits of the day", example = "250.00")
+    private BigDecimal depositTotal = BigDecimal.ZERO;
+
+    @Column(name = "withdraw_total", nullable = false, precision = 19, scale = 4)
+    @Schema(description = "Sum of the withdrawals of the day", example = "100.00")
+    private BigDecimal withdrawTotal = BigDecimal.ZERO;
+
+    @ManyToOne
+    @JoinColumn(name = "account_id", nullable = false)
+    @Schema(description = "Associated account")
+    private Account account;
+}
@@ -1,8 +1,17 @@
 package com.microservices.accountservice.repository;
 
+import com.microservices.accountservice.dto.AccountSnapshotDTO;
+import com.microservices.accountservice.enums.MemberRanking;
 import com.microservices.accountservice.model.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -42,4 +51,96 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      * @return an Optional containing the found Account, or an empty Optional if no Account found.
      */
     Optional<Account> findById(Long id);
+
+    /**
+     * Finds the ID of an account by the account number without loading the entity.
+     *
+     * @param accountNumber the account number to search for.
+     * @return an Optional containing the ID, or an empty Optional if no Account found.
+     */
+    @Query("select a.id from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Finds the identity of an account by the account number without loading the entity.
+     *
+     * @param accountNumber the account number to search for.
+     * @return an Optional containing the snapshot, or an empty Optional if no Account found.
+     */
+    @Query("select new com.microservices.accountservice.dto.AccountSnapshotDTO(a.id, a.username, a.memberRanking) " +
+            "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountSnapshotDTO> findSnapshotByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Finds the ID of an account by the username without loading the entity.
+     *
+     * @param username the username to search for.
+     * @return an Optional containing the ID, or an empty Optional if no Account found.
+     */
+    @Query("select a.id from Account a where a.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    /**
+     * Finds an account by the account ID and locks its row until the end of the transaction.
+     *
+     * @param id the ID of the account to search for.
+     * @return an Optional containing the locked Account, or an empty Optional if no Account found.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Adds an amount to the balance of an account in a single statement, without loading the entity.
+     * A negative amount is subtracted without any balance check.
+     * Pending changes are flushed first and the persistence context is cleared afterwards, so no Account loaded
+     * before keeps a stale balance or version; the same holds for the other updates below.
+     *
+     * @param id     the ID of the account.
+     * @param amount the amount to add.
+     * @param now    the update timestamp.
+     * @return the number of updated rows, 0 if the account does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1, a.updatedDate = :now " +
+            "where a.id = :id")
+    int addToBalance(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Subtracts an amount from the balance of an account if the balance covers it.
+     * The balance check and the write happen in the same statement, so concurrent withdrawals cannot overdraw the account.
+     *
+     * @param id     the ID of the account.
+     * @param amount the amount to withdraw.
+     * @param now    the update timestamp.
+     * @return the number of updated rows, 0 if the balance is insufficient or the account does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1, a.updatedDate = :now " +
+            "where a.id = :id and a.balance >= :amount")
+    int withdrawFromBalance(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Finds the current balance of an account without loading the entity.
+     *
+     * @param id the ID of the account.
+     * @return the balance, or null if the account does not exist.
+     */
+    @Query("select a.balance from Account a where a.id = :id")
+    BigDecimal findBalanceById(@Param("id") Long id);
+
+    /**
+     * Sets the member ranking of an account if it differs from the current one.
+     * The version is bumped like on every other write, so an Account loaded before cannot overwrite the ranking.
+     *
+     * @param id            the ID of the account.
+     * @param memberRanking the new member ranking.
+     * @param now           the update timestamp.
+     * @return the number of updated rows, 0 if the ranking did not change.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.memberRanking = :memberRanking, a.version = a.version + 1, a.updatedDate = :now " +
+            "where a.id = :id and a.memberRanking <> :memberRanking")
+    int updateMemberRanking(@Param("id") Long id, @Param("memberRanking") MemberRanking memberRanking,
+                            @Param("now") LocalDateTime now);
 }
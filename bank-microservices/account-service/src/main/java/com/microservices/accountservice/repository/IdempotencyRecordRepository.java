@@ -0,0 +1,36 @@
+package com.microservices.accountservice.repository;
+
+import com.microservices.accountservice.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for the IdempotencyRecord entity.
+ * Extends JpaRepository to provide CRUD operations and custom query methods.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * Finds the record of an idempotency key sent by a user.
+     *
+     * @param username       the user that sent the key.
+     * @param idempotencyKey the idempotency key to search for.
+     * @return an Optional containing the found IdempotencyRecord, or an empty Optional if the user did not use the key yet.
+     */
+    Optional<IdempotencyRecord> findByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    /**
+     * Deletes all records created before the given date.
+     *
+     * @param createdBefore the oldest creation date to keep.
+     * @return the number of deleted records.
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdDate < :createdBefore")
+    int deleteByCreatedDateBefore(@Param("createdBefore") LocalDateTime createdBefore);
+}
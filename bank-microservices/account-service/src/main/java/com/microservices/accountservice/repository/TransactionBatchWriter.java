@@ -0,0 +1,85 @@
+package com.microservices.accountservice.repository;
+
+import com.microservices.accountservice.model.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes transaction log rows with JDBC batch inserts instead of persisting one Transaction entity at a time.
+ * The audit columns set by AbstractEntity on persist are filled in here.
+ * On MySQL the driver only sends a batch as one multi-row insert with rewriteBatchedStatements=true on the datasource URL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchWriter {
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transaction " +
+            "(created_date, created_by, is_active, version, transaction_amount, transaction_date, account_id) " +
+            "VALUES (?, ?, TRUE, 0, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${transaction.batch.jdbc-batch-size:500}")
+    private int batchSize = 500;
+
+    /**
+     * A transaction log row to insert.
+     *
+     * @param accountId       the ID of the account.
+     * @param amount          the signed amount, negative for withdrawals.
+     * @param transactionDate the date of the transaction.
+     * @param createdBy       the user that booked the transaction.
+     */
+    public record Row(Long accountId, BigDecimal amount, LocalDateTime transactionDate, String createdBy) {
+    }
+
+    /**
+     * Inserts a transaction row for each amount, all booked at the same date by the current user.
+     *
+     * @param account the account the transactions belong to.
+     * @param amounts the signed amounts, negative for withdrawals.
+     * @param transactionDate the date of the transactions.
+     */
+    public void insertTransactions(Account account, List<BigDecimal> amounts, LocalDateTime transactionDate) {
+        String createdBy = getCurrentUser();
+        insertRows(amounts.stream().map(amount -> new Row(account.getId(), amount, transactionDate, createdBy)).toList());
+    }
+
+    /**
+     * Inserts the given transaction rows, which may belong to different accounts.
+     *
+     * @param rows the rows to insert.
+     */
+    public void insertRows(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows, batchSize, (ps, row) -> {
+            Timestamp date = Timestamp.valueOf(row.transactionDate());
+            ps.setTimestamp(1, date);
+            ps.setString(2, row.createdBy());
+            ps.setBigDecimal(3, row.amount());
+            ps.setTimestamp(4, date);
+            ps.setLong(5, row.accountId());
+        });
+    }
+
+    /**
+     * Finds the name of the current user, as AbstractEntity records it.
+     *
+     * @return the username, or SYSTEM outside of a request.
+     */
+    public static String getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (authentication != null) ? authentication.getName() : "SYSTEM";
+    }
+}
@@ -0,0 +1,79 @@
+package com.microservices.accountservice.repository;
+
+import com.microservices.accountservice.dto.TransactionWindowTotalsDTO;
+import com.microservices.accountservice.model.TransactionBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for the TransactionBucket entity.
+ * Extends JpaRepository to provide CRUD operations and custom query methods.
+ */
+public interface TransactionBucketRepository extends JpaRepository<TransactionBucket, Long> {
+
+    /**
+     * Adds amounts to the bucket of an account for a day in a single statement, creating the bucket on the first
+     * booking of the day. The unique key on (account_id, bucket_date) turns a concurrent first booking into an
+     * increment of the row inserted by the other transaction, so no booking is lost and none fails on the key.
+     *
+     * @param accountId the ID of the account.
+     * @param bucketDate the day of the bucket.
+     * @param deposit the amount to add to the deposit total.
+     * @param withdraw the amount to add to the withdrawal total.
+     * @param now the current date and time, recorded as creation or update date.
+     * @param user the user booking the amounts, recorded as creator or updater.
+     * @return the number of affected rows as reported by the database.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_bucket " +
+            "(created_date, created_by, is_active, version, bucket_date, deposit_total, withdraw_total, account_id) " +
+            "VALUES (:now, :user, TRUE, 0, :bucketDate, :deposit, :withdraw, :accountId) " +
+            "ON DUPLICATE KEY UPDATE deposit_total = deposit_total + VALUES(deposit_total), " +
+            "withdraw_total = withdraw_total + VALUES(withdraw_total), version = version + 1, " +
+            "updated_date = VALUES(created_date), updated_by = VALUES(created_by)", nativeQuery = true)
+    int addToBucket(@Param("accountId") Long accountId,
+                    @Param("bucketDate") LocalDate bucketDate,
+                    @Param("deposit") BigDecimal deposit,
+                    @Param("withdraw") BigDecimal withdraw,
+                    @Param("now") LocalDateTime now,
+                    @Param("user") String user);
+
+    /**
+     * Sums the daily buckets of an account over the daily, weekly and monthly windows in a single query.
+     *
+     * @param accountId  the ID of the account.
+     * @param today      the current day, which is also the daily window.
+     * @param weekStart  the first day of the weekly window.
+     * @param monthStart the first day of the monthly window, which must be the earliest of the two.
+     * @return the six window totals, zero where nothing was booked.
+     */
+    @Query("select new com.microservices.accountservice.dto.TransactionWindowTotalsDTO(" +
+            "coalesce(sum(case when b.bucketDate = :today then b.depositTotal end), 0), " +
+            "coalesce(sum(case when b.bucketDate = :today then b.withdrawTotal end), 0), " +
+            "coalesce(sum(case when b.bucketDate >= :weekStart then b.depositTotal end), 0), " +
+            "coalesce(sum(case when b.bucketDate >= :weekStart then b.withdrawTotal end), 0), " +
+            "coalesce(sum(b.depositTotal), 0), " +
+            "coalesce(sum(b.withdrawTotal), 0)) " +
+            "from TransactionBucket b " +
+            "where b.account.id = :accountId and b.bucketDate >= :monthStart and b.bucketDate <= :today")
+    TransactionWindowTotalsDTO sumWindowTotals(@Param("accountId") Long accountId,
+                                               @Param("today") LocalDate today,
+                                               @Param("weekStart") LocalDate weekStart,
+                                               @Param("monthStart") LocalDate monthStart);
+
+    /**
+     * Deletes the daily buckets of an account, which is not mapped to them.
+     *
+     * @param accountId the ID of the account.
+     * @return the number of deleted buckets.
+     */
+    @Modifying
+    @Query("delete from TransactionBucket b where b.account.id = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -1,11 +1,20 @@
 package com.microservices.accountservice.repository;
 
+import com.microservices.accountservice.dto.TransactionHistoryDTO;
+import com.microservices.accountservice.dto.TransactionWindowTotalsDTO;
 import com.microservices.accountservice.model.Account;
 import com.microservices.accountservice.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for the Transaction entity.
@@ -22,4 +31,83 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      * @return a list of transactions that match the criteria.
      */
     List<Transaction> findByAccountAndTransactionDateBetween(Account account, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Sums the deposits and withdrawals of an account over the daily, weekly and monthly windows in a single query.
+     * Deposits are the positive transaction amounts and withdrawals the negative ones.
+     *
+     * @param accountId  the ID of the account.
+     * @param dayStart   the start of the daily window.
+     * @param weekStart  the start of the weekly window.
+     * @param monthStart the start of the monthly window, which must be the earliest of the three.
+     * @param now        the end of all windows.
+     * @return the six window totals, zero where nothing was booked.
+     */
+    @Query("select new com.microservices.accountservice.dto.TransactionWindowTotalsDTO(" +
+            "coalesce(sum(case when t.transactionDate >= :dayStart and t.transactionAmount > 0 then t.transactionAmount end), 0), " +
+            "coalesce(sum(case when t.transactionDate >= :dayStart and t.transactionAmount < 0 then -t.transactionAmount end), 0), " +
+            "coalesce(sum(case when t.transactionDate >= :weekStart and t.transactionAmount > 0 then t.transactionAmount end), 0), " +
+            "coalesce(sum(case when t.transactionDate >= :weekStart and t.transactionAmount < 0 then -t.transactionAmount end), 0), " +
+            "coalesce(sum(case when t.transactionAmount > 0 then t.transactionAmount end), 0), " +
+            "coalesce(sum(case when t.transactionAmount < 0 then -t.transactionAmount end), 0)) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId and t.transactionDate >= :monthStart and t.transactionDate <= :now")
+    TransactionWindowTotalsDTO sumWindowTotals(@Param("accountId") Long accountId,
+                                               @Param("dayStart") LocalDateTime dayStart,
+                                               @Param("weekStart") LocalDateTime weekStart,
+                                               @Param("monthStart") LocalDateTime monthStart,
+                                               @Param("now") LocalDateTime now);
+
+    /**
+     * Finds a page of the transaction history of an account, newest first, seeking past the last entry of the previous page.
+     * The page starts right after the cursor (cursorDate, cursorId) in (transaction_date, id) order, so its cost does not
+     * depend on how many pages were read before. The redundant bound on transactionDate lets the date range of the
+     * account and date index be scanned directly.
+     *
+     * @param accountId   the ID of the account.
+     * @param from        the earliest transaction date to include.
+     * @param cursorDate  the transaction date of the last entry of the previous page.
+     * @param cursorId    the ID of the last entry of the previous page.
+     * @param deposits    true to include deposits.
+     * @param withdrawals true to include withdrawals.
+     * @param pageable    the page size; the page number must be 0.
+     * @return the entries of the page.
+     */
+    @Query("select new com.microservices.accountservice.dto.TransactionHistoryDTO(t.id, t.transactionDate, t.transactionAmount) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId " +
+            "and t.transactionDate >= :from and t.transactionDate <= :cursorDate " +
+            "and (t.transactionDate < :cursorDate or t.id < :cursorId) " +
+            "and ((:deposits = true and t.transactionAmount >= 0) or (:withdrawals = true and t.transactionAmount < 0)) " +
+            "order by t.transactionDate desc, t.id desc")
+    List<TransactionHistoryDTO> findHistoryPage(@Param("accountId") Long accountId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("cursorDate") LocalDateTime cursorDate,
+                                                @Param("cursorId") Long cursorId,
+                                                @Param("deposits") boolean deposits,
+                                                @Param("withdrawals") boolean withdrawals,
+                                                Pageable pageable);
+
+    /**
+     * Streams the transactions of an account in a date range, oldest first, as lightweight DTOs.
+     * Rows are fetched from a forward-only cursor in chunks of the fetch size, so the stream never holds the whole range.
+     * MySQL only honours the fetch size with useCursorFetch=true on the datasource URL.
+     * The stream must be consumed and closed inside a transaction.
+     *
+     * @param accountId the ID of the account.
+     * @param from      the earliest transaction date to include.
+     * @param to        the latest transaction date to include.
+     * @return a stream of the transactions.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.microservices.accountservice.dto.TransactionHistoryDTO(t.id, t.transactionDate, t.transactionAmount) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId and t.transactionDate >= :from and t.transactionDate <= :to " +
+            "order by t.transactionDate, t.id")
+    Stream<TransactionHistoryDTO> streamStatement(@Param("accountId") Long accountId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
 }
@@ -1,6 +1,10 @@
 package com.microservices.accountservice.security;
 
+import com.microservices.accountservice.client.UserClient;
+import com.microservices.accountservice.dto.UserGetCurrentLoggedInUserDTO;
 import com.microservices.accountservice.util.JwtTokenProvider;
+import feign.FeignException;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,20 +22,50 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * Request attribute holding the current user built from the claims of the validated token.
+     */
+    public static final String CURRENT_USER_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".CURRENT_USER";
+
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final UserClient userClient;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
         String jwtToken = jwtTokenProvider.resolveToken(request);
-        if (jwtToken != null && jwtTokenProvider.validateToken(jwtToken)) {
-            String username = jwtTokenProvider.extractUsername(jwtToken);
+        Claims claims = jwtToken != null ? jwtTokenProvider.parseValidClaims(jwtToken) : null;
+        if (claims != null && !isRevoked(jwtToken)) {
+            String username = claims.getSubject();
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 JwtAuthenticationToken authentication = new JwtAuthenticationToken(username, null, null);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
+
+            // The token of user-service carries the email, so the services need not ask user-service for it
+            String email = claims.get("email", String.class);
+            if (username != null && email != null) {
+                request.setAttribute(CURRENT_USER_ATTRIBUTE, new UserGetCurrentLoggedInUserDTO(null, username, email));
+            }
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Check the token against the local revocation registry, or against user-service while the registry is not current.
+     * user-service rejects revoked tokens, and a token it cannot confirm is treated as revoked.
+     */
+    private boolean isRevoked(String jwtToken) {
+        if (tokenRevocationRegistry.isCurrent()) {
+            return tokenRevocationRegistry.isRevoked(jwtToken);
+        }
+        try {
+            userClient.getCurrentLoggedInUser();
+            return false;
+        } catch (FeignException e) {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.microservices.accountservice.security;
+
+import com.microservices.accountservice.client.TokenRevocationClient;
+import com.microservices.accountservice.dto.TokenRevocationDTO;
+import com.microservices.accountservice.dto.TokenRevocationFeedDTO;
+import com.microservices.accountservice.util.JwtTokenProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Local copy of the tokens revoked in user-service, consulted by JwtAuthenticationFilter without a remote call.
+ * The revocation feed of user-service is polled in the background every token.revocation.poll-interval-ms,
+ * asking only for the revocations after the last version seen, so a logout takes effect here within one interval.
+ * The feed sends recent revocations again to cover rows that committed out of ID order, and they are kept by digest.
+ * Once the last successful poll is older than token.revocation.max-staleness the registry is no longer current,
+ * and the next poll starts over from version 0, since the revocations committed meanwhile may have left that overlap;
+ * the maximum staleness must therefore stay below token.revocation.overlap of user-service.
+ * Tokens are dropped once they have expired, since expired tokens are rejected anyway.
+ */
+@Slf4j
+@Component
+public class TokenRevocationRegistry {
+
+    private static final int FEED_PAGE_SIZE = 1000;
+
+    private final TokenRevocationClient tokenRevocationClient;
+    private final Map<String, Long> expiryByHash = new ConcurrentHashMap<>();
+    private final Counter pollFailures;
+    private final long maxStalenessMillis;
+    private final LongSupplier clock;
+
+    private volatile long version;
+    private volatile long lastSuccessfulPoll;
+
+    @Autowired
+    public TokenRevocationRegistry(TokenRevocationClient tokenRevocationClient, MeterRegistry meterRegistry,
+                                   @Value("${token.revocation.max-staleness:30s}") Duration maxStaleness) {
+        this(tokenRevocationClient, meterRegistry, maxStaleness, System::currentTimeMillis);
+    }
+
+    TokenRevocationRegistry(TokenRevocationClient tokenRevocationClient, MeterRegistry meterRegistry,
+                            Duration maxStaleness, LongSupplier clock) {
+        this.tokenRevocationClient = tokenRevocationClient;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.clock = clock;
+        this.pollFailures = Counter.builder("token.revocation.poll.failures")
+                .description("Failed polls of the revocation feed of user-service")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("token.revocation.registry.size", List.of(), expiryByHash);
+        meterRegistry.gauge("token.revocation.registry.version", this, registry -> registry.version);
+        meterRegistry.gauge("token.revocation.registry.staleness.seconds", this,
+                registry -> (registry.clock.getAsLong() - registry.lastSuccessfulPoll) / 1000.0);
+    }
+
+    /**
+     * Check whether the registry was refreshed recently enough to be trusted.
+     *
+     * @return true if the last successful poll is not older than the maximum staleness, false otherwise.
+     */
+    public boolean isCurrent() {
+        return clock.getAsLong() - lastSuccessfulPoll <= maxStalenessMillis;
+    }
+
+    /**
+     * Check whether a token was revoked in user-service.
+     *
+     * @param token the JWT token.
+     * @return true if the token was revoked and has not expired yet, false otherwise.
+     */
+    public boolean isRevoked(String token) {
+        if (expiryByHash.isEmpty()) {
+            return false;
+        }
+        Long expiry = expiryByHash.get(JwtTokenProvider.hashToken(token));
+        return expiry != null && expiry > clock.getAsLong();
+    }
+
+    /**
+     * Fetch the revocations after the last version seen, then drop the expired ones.
+     * A failed poll is retried from the same version on the next run, or from version 0 once the registry is no longer current.
+     */
+    @Scheduled(fixedDelayString = "${token.revocation.poll-interval-ms:2000}")
+    public synchronized void poll() {
+        long started = clock.getAsLong();
+        try {
+            if (!isCurrent()) {
+                version = 0;
+            }
+            TokenRevocationFeedDTO feed;
+            do {
+                feed = tokenRevocationClient.getRevocations(version, FEED_PAGE_SIZE);
+                for (TokenRevocationDTO revocation : feed.getRevocations()) {
+                    expiryByHash.put(revocation.getTokenHash(),
+                            revocation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                }
+                version = feed.getVersion();
+            } while (feed.isHasMore());
+            lastSuccessfulPoll = started;
+        } catch (RuntimeException e) {
+            pollFailures.increment();
+            log.warn("Could not poll the token revocations of user-service: {}", e.getMessage());
+        }
+
+        long now = clock.getAsLong();
+        expiryByHash.values().removeIf(expiry -> expiry <= now);
+    }
+}
@@ -9,13 +9,17 @@ import com.microservices.accountservice.model.Account;
 import com.microservices.accountservice.model.Limits;
 import com.microservices.accountservice.repository.AccountRepository;
 import com.microservices.accountservice.repository.LimitsRepository;
+import com.microservices.accountservice.repository.TransactionBucketRepository;
+import com.microservices.accountservice.security.JwtAuthenticationFilter;
+import com.microservices.accountservice.util.AccountNumberGenerator;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.Optional;
-import java.util.Random;
 
 /**
  * Service class for handling account-related operations.
@@ -28,7 +32,11 @@ public class AccountService implements IAccountService {
     private final AccountRepository accountRepository;
     private final AccountMapper accountMapper;
     private final LimitsRepository limitsRepository;
+    private final TransactionBucketRepository transactionBucketRepository;
     private final UserClient userClient;
+    private final LimitsCache limitsCache;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final AccountNumberGenerator accountNumberGenerator;
 
     /**
      * Create a new account for the current logged-in user.
@@ -40,7 +48,7 @@ public class AccountService implements IAccountService {
     public AccountReadOnlyDTO createAccount() throws AccountAlreadyExistsException {
         // Fetch current user details
         log.info("Fetching current user details");
-        UserGetCurrentLoggedInUserDTO currentUser = getCurrentLoggedInUser();
+        UserGetCurrentLoggedInUserDTO currentUser = resolveCurrentUser();
         log.info("Current user details fetched successfully");
         String username = currentUser.getUsername();
 
@@ -57,7 +65,7 @@ public class AccountService implements IAccountService {
         AccountCreateDTO accountCreateDTO = new AccountCreateDTO();
         accountCreateDTO.setUsername(currentUser.getUsername());
         accountCreateDTO.setEmail(currentUser.getEmail());
-        accountCreateDTO.setAccountNumber(generateAccountNumber());
+        accountCreateDTO.setAccountNumber(accountNumberGenerator.next());
         accountCreateDTO.setMemberRanking(MemberRanking.STANDARD); // Default member ranking
 
         log.info("Member ranking for new account: {}", accountCreateDTO.getMemberRanking());
@@ -88,7 +96,7 @@ public class AccountService implements IAccountService {
     @Override
     public AccountReadOnlyDTO updateAccount(AccountUpdateDTO dto) throws RuntimeException {
         log.info("Fetching current logged-in user details");
-        UserGetCurrentLoggedInUserDTO currentUser = getCurrentLoggedInUser();
+        UserGetCurrentLoggedInUserDTO currentUser = resolveCurrentUser();
         String username = currentUser.getUsername();
 
         log.info("Finding existing account by username: {}", username);
@@ -111,6 +119,7 @@ public class AccountService implements IAccountService {
 
         log.info("Saving updated account");
         Account savedAccount = accountRepository.save(existingAccount);
+        accountSnapshotCache.evict(savedAccount.getAccountNumber());
 
         if (isUpdated) {
             log.info("Updating user details in user-service");
@@ -130,7 +139,7 @@ public class AccountService implements IAccountService {
     @Override
     public AccountDeleteDTO deleteAccount() throws EntityNotFoundException {
         log.info("Fetching current logged-in user details");
-        UserGetCurrentLoggedInUserDTO currentUser = getCurrentLoggedInUser();
+        UserGetCurrentLoggedInUserDTO currentUser = resolveCurrentUser();
         String username = currentUser.getUsername();
 
         log.info("Finding existing account by username: {}", username);
@@ -147,7 +156,10 @@ public class AccountService implements IAccountService {
         userDeleteDTO.setMessage("User deleted successfully");
 
         log.info("Deleting account");
+        transactionBucketRepository.deleteByAccountId(existingAccount.getId());
         accountRepository.delete(existingAccount);
+        limitsCache.evict(existingAccount.getId());
+        accountSnapshotCache.evict(existingAccount.getAccountNumber());
 
         log.info("Returning AccountDeleteDTO");
         return accountMapper.toAccountDeleteDTO(existingAccount);
@@ -162,7 +174,7 @@ public class AccountService implements IAccountService {
     @Override
     public Optional<AccountFindAccountIdDTO> findAccountId() throws EntityNotFoundException {
         log.info("Fetching current logged-in user details");
-        UserGetCurrentLoggedInUserDTO currentUser = getCurrentLoggedInUser();
+        UserGetCurrentLoggedInUserDTO currentUser = resolveCurrentUser();
         String username = currentUser.getUsername();
 
         log.info("Finding existing account by username: {}", username);
@@ -187,6 +199,22 @@ public class AccountService implements IAccountService {
         return userClient.getCurrentLoggedInUser();
     }
 
+    /**
+     * Resolve the current logged-in user from the claims of the validated token of the request,
+     * asking user-service only when there is no request or the token lacks the claims.
+     * The ID of the user is not part of the token and is left empty.
+     *
+     * @return UserGetCurrentLoggedInUserDTO
+     */
+    private UserGetCurrentLoggedInUserDTO resolveCurrentUser() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null && requestAttributes.getAttribute(JwtAuthenticationFilter.CURRENT_USER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST) instanceof UserGetCurrentLoggedInUserDTO currentUser) {
+            return currentUser;
+        }
+        return getCurrentLoggedInUser();
+    }
+
     /**
      * Initialize limits for the account.
      *
@@ -209,21 +237,6 @@ public class AccountService implements IAccountService {
         limits.setMonthlyDepositLimit(ranking.getMonthlyDepositLimit());
 
         limitsRepository.save(limits);
-    }
-
-    /**
-     * Generate a new account number.
-     *
-     * @return String
-     */
-    private String generateAccountNumber() {
-        log.info("Generating a new account number");
-        Random random = new Random();
-        String accountNumber = String.valueOf(random.nextInt(1000000000));
-        while (accountRepository.existsByAccountNumber(accountNumber)) {
-            accountNumber = String.valueOf(random.nextInt(1000000000));
-        }
-        log.info("Account number generated successfully: {}", accountNumber);
-        return accountNumber;
+        limitsCache.evict(account.getId());
     }
 }
@@ -0,0 +1,80 @@
+package com.microservices.accountservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.accountservice.dto.AccountSnapshotDTO;
+import com.microservices.accountservice.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory cache of account identities, keyed by account number.
+ * Money movements resolve the account number here and then update the account by its primary key,
+ * instead of looking the account up by number every time. Entries hold no balance, so concurrent bookings
+ * never invalidate them; they are evicted when the account is updated or deleted, or its ranking changes.
+ * Entries expire after account.cache.ttl, which also bounds how long another instance can serve an identity
+ * it did not evict itself.
+ */
+@Slf4j
+@Component
+public class AccountSnapshotCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, AccountSnapshotDTO> accounts;
+
+    public AccountSnapshotCache(AccountRepository accountRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${account.cache.max-size:100000}") long maxSize,
+                                @Value("${account.cache.ttl:10m}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, "accounts");
+    }
+
+    /**
+     * Find the identity of an account, loading it from the database on a miss.
+     * Unknown account numbers are not cached.
+     *
+     * @param accountNumber the account number.
+     * @return an Optional containing the snapshot, or an empty Optional if no account has the number.
+     */
+    public Optional<AccountSnapshotDTO> findByAccountNumber(String accountNumber) {
+        return Optional.ofNullable(accounts.get(accountNumber, this::load));
+    }
+
+    /**
+     * Evict the identity of an account, after it was updated or deleted.
+     * Inside a transaction the entry is evicted again after commit, so a lookup that reloaded
+     * the uncommitted old row in between does not keep it.
+     *
+     * @param accountNumber the account number.
+     */
+    public void evict(String accountNumber) {
+        log.debug("Evicting cached identity of account {}", accountNumber);
+        accounts.invalidate(accountNumber);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accounts.invalidate(accountNumber);
+                }
+            });
+        }
+    }
+
+    private AccountSnapshotDTO load(String accountNumber) {
+        return accountRepository.findSnapshotByAccountNumber(accountNumber).orElse(null);
+    }
+}
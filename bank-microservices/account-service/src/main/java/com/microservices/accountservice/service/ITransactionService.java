@@ -1,12 +1,17 @@
 package com.microservices.accountservice.service;
 
+import com.microservices.accountservice.dto.TransactionBatchItemResultDTO;
 import com.microservices.accountservice.dto.TransactionDTO;
+import com.microservices.accountservice.dto.TransactionHistoryPageDTO;
+import com.microservices.accountservice.enums.TransactionDirection;
 import com.microservices.accountservice.exception.LimitExceededException;
 import com.microservices.accountservice.model.Account;
 import com.microservices.accountservice.model.Limits;
+import com.microservices.accountservice.util.StatementWriter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Service interface for managing transactions on accounts.
@@ -37,6 +42,57 @@ public interface ITransactionService {
      */
     void processTransaction(TransactionDTO transactionDTO) throws LimitExceededException;
 
+    /**
+     * Transfers money between two accounts in a single transaction.
+     *
+     * @param fromAccountNumber the account number to withdraw from.
+     * @param toAccountNumber   the account number to deposit to.
+     * @param amount            the amount to transfer.
+     * @throws LimitExceededException if either leg exceeds the limits of its account.
+     */
+    void transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) throws LimitExceededException;
+
+    /**
+     * Books a batch of transactions of one account. Positive amounts are deposits and negative amounts withdrawals.
+     *
+     * @param accountNumber the account number all items belong to.
+     * @param items         the transactions, in booking order.
+     * @return the accepted or rejected result of each item, in the order of the items.
+     */
+    List<TransactionBatchItemResultDTO> processBatch(String accountNumber, List<TransactionDTO> items);
+
+    /**
+     * Reads a page of the transaction history of the current logged-in user's account, newest first.
+     *
+     * @param from       the earliest transaction date to include.
+     * @param to         the latest transaction date to include.
+     * @param direction  the direction to include, or null for both.
+     * @param cursorDate the nextCursorDate of the previous page, or null for the first page.
+     * @param cursorId   the nextCursorId of the previous page, or null for the first page.
+     * @param size       the maximum number of entries of the page.
+     * @return the page, with the cursor of the next page if there is one.
+     */
+    TransactionHistoryPageDTO getHistory(LocalDateTime from, LocalDateTime to, TransactionDirection direction,
+                                         LocalDateTime cursorDate, Long cursorId, int size);
+
+    /**
+     * Writes the statement of an account for a date range, oldest first, without loading the whole range into memory.
+     *
+     * @param accountId the ID of the account.
+     * @param from      the earliest transaction date to include.
+     * @param to        the latest transaction date to include.
+     * @param writer    the writer to write the rows to.
+     * @return the number of rows written.
+     */
+    long writeStatement(Long accountId, LocalDateTime from, LocalDateTime to, StatementWriter writer);
+
+    /**
+     * Finds the account ID of the current logged-in user.
+     *
+     * @return the account ID.
+     */
+    Long getCurrentAccountId();
+
     /**
      * Validates the transaction limits for a given account.
      *
@@ -0,0 +1,171 @@
+package com.microservices.accountservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.accountservice.exception.IdempotencyKeyConflictException;
+import com.microservices.accountservice.model.IdempotencyRecord;
+import com.microservices.accountservice.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Service class for handling requests sent with an Idempotency-Key header.
+ * The first request with a key is executed and its outcome stored in the same database transaction,
+ * so a retried request replays the stored outcome instead of booking again.
+ * Keys are chosen by the client, so they are scoped to the user that sent them and one user can neither see nor block the keys of another.
+ * Recent outcomes are kept in a bounded in-memory cache in front of the idempotency_record table.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<CallerKey, Outcome> outcomes;
+    private final Counter replays;
+    private final Duration retention;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${transaction.idempotency.cache-size:100000}") long cacheSize,
+                              @Value("${transaction.idempotency.cache-ttl:10m}") Duration cacheTtl,
+                              @Value("${transaction.idempotency.retention:24h}") Duration retention) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        this.replays = Counter.builder("transaction.idempotency.replays")
+                .description("Requests answered with the stored outcome of an earlier request")
+                .register(meterRegistry);
+        this.retention = retention;
+        CaffeineCacheMetrics.monitor(meterRegistry, outcomes, "idempotency");
+    }
+
+    /**
+     * Execute a booking at most once per idempotency key of the current user.
+     * Without a key the booking is simply executed. Only successful bookings are stored, so a failed request can be retried.
+     *
+     * @param idempotencyKey the key sent by the client, or null.
+     * @param operation the name of the operation.
+     * @param booking the booking to execute, which joins the transaction that stores the outcome.
+     * @param request the parts of the request the key must be reused with, e.g. account number and amount.
+     * @return the HTTP status of the outcome.
+     * @throws IdempotencyKeyConflictException if the user already used the key for a different request.
+     */
+    public HttpStatus execute(String idempotencyKey, String operation, Runnable booking, Object... request) throws IdempotencyKeyConflictException {
+        if (idempotencyKey == null) {
+            booking.run();
+            return HttpStatus.OK;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String username = getCurrentUser();
+        CallerKey callerKey = new CallerKey(username, idempotencyKey);
+        String requestHash = hash(operation, username, request);
+        Outcome stored = outcomes.get(callerKey, this::load);
+        if (stored != null) {
+            return replay(idempotencyKey, stored, requestHash);
+        }
+
+        try {
+            Outcome outcome = transactionTemplate.execute(status -> {
+                booking.run();
+                IdempotencyRecord idempotencyRecord = new IdempotencyRecord(username, idempotencyKey, requestHash, HttpStatus.OK.value());
+                idempotencyRecordRepository.saveAndFlush(idempotencyRecord);
+                return Outcome.of(idempotencyRecord);
+            });
+            outcomes.put(callerKey, outcome);
+            return HttpStatus.valueOf(outcome.responseStatus());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first, its booking stands and this one was rolled back
+            Outcome winner = load(callerKey);
+            if (winner == null) {
+                throw e;
+            }
+            outcomes.put(callerKey, winner);
+            return replay(idempotencyKey, winner, requestHash);
+        }
+    }
+
+    /**
+     * Delete the stored outcomes that are older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${transaction.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime createdBefore = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteByCreatedDateBefore(createdBefore));
+        log.info("Purged {} idempotency records created before {}", deleted, createdBefore);
+    }
+
+    private Outcome load(CallerKey callerKey) {
+        return idempotencyRecordRepository.findByUsernameAndIdempotencyKey(callerKey.username(), callerKey.idempotencyKey())
+                .map(Outcome::of).orElse(null);
+    }
+
+    private HttpStatus replay(String idempotencyKey, Outcome stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used for a different request");
+        }
+        log.info("Replaying stored outcome of idempotency key {}", idempotencyKey);
+        replays.increment();
+        return HttpStatus.valueOf(stored.responseStatus());
+    }
+
+    /**
+     * Hash the operation, the caller and the request parts. Amounts are compared by value, so 100 and 100.00 match.
+     */
+    private static String hash(String operation, String username, Object... request) {
+        StringBuilder builder = new StringBuilder(operation).append('\n').append(username);
+        for (Object part : request) {
+            builder.append('\n').append(part instanceof BigDecimal amount ? amount.stripTrailingZeros().toPlainString() : part);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(builder.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (authentication != null) ? authentication.getName() : "SYSTEM";
+    }
+
+    private record CallerKey(String username, String idempotencyKey) {
+    }
+
+    private record Outcome(String requestHash, int responseStatus) {
+
+        static Outcome of(IdempotencyRecord idempotencyRecord) {
+            return new Outcome(idempotencyRecord.getRequestHash(), idempotencyRecord.getResponseStatus());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.microservices.accountservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.accountservice.model.Limits;
+import com.microservices.accountservice.repository.LimitsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory cache of the limits of each account, keyed by account ID.
+ * Limits only change when an account is created or deleted, so money movements read them from here
+ * instead of querying the limits table every time. Entries expire after limits.cache.ttl, which also bounds
+ * how long another instance can serve limits it did not evict itself.
+ * Cached limits are detached copies without their account and must not be modified.
+ */
+@Slf4j
+@Component
+public class LimitsCache {
+
+    private final LimitsRepository limitsRepository;
+    private final Cache<Long, Limits> limits;
+
+    public LimitsCache(LimitsRepository limitsRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${limits.cache.max-size:100000}") long maxSize,
+                       @Value("${limits.cache.ttl:10m}") Duration ttl) {
+        this.limitsRepository = limitsRepository;
+        this.limits = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, limits, "limits");
+    }
+
+    /**
+     * Find the limits of an account, loading them from the database on a miss.
+     * Accounts without limits are not cached.
+     *
+     * @param accountId the ID of the account.
+     * @return an Optional containing the limits, or an empty Optional if the account has none.
+     */
+    public Optional<Limits> findByAccountId(Long accountId) {
+        return Optional.ofNullable(limits.get(accountId, this::load));
+    }
+
+    /**
+     * Evict the limits of an account, after they were rewritten or the account was deleted.
+     *
+     * @param accountId the ID of the account.
+     */
+    public void evict(Long accountId) {
+        log.info("Evicting cached limits of account {}", accountId);
+        limits.invalidate(accountId);
+    }
+
+    private Limits load(Long accountId) {
+        return limitsRepository.findByAccountId(accountId).map(LimitsCache::copyOf).orElse(null);
+    }
+
+    private static Limits copyOf(Limits source) {
+        Limits copy = new Limits(source.getDailyLimit(), source.getWeeklyLimit(), source.getMonthlyLimit(),
+                source.getTransactionLimit(), source.getDailyWithdrawLimit(), source.getDailyDepositLimit(),
+                source.getWeeklyWithdrawLimit(), source.getWeeklyDepositLimit(), source.getMonthlyWithdrawLimit(),
+                source.getMonthlyDepositLimit(), null);
+        copy.setId(source.getId());
+        return copy;
+    }
+}
@@ -0,0 +1,130 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.dto.TransactionBatchItemResultDTO;
+import com.microservices.accountservice.dto.TransactionBatchResultDTO;
+import com.microservices.accountservice.dto.TransactionDTO;
+import com.microservices.accountservice.exception.AccountBusyException;
+import com.microservices.accountservice.exception.LimitExceededException;
+import com.microservices.accountservice.util.AccountLaneExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for booking batches of transactions across many accounts.
+ * The items are grouped by account and each group is booked in one database transaction on the lane of its account,
+ * so the groups of different accounts are booked in parallel. A group whose lane is full is rejected.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+
+    private final ITransactionService transactionService;
+    private final AccountLaneExecutor accountLaneExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.batch.max-items:10000}")
+    private int maxItems = 10000;
+
+    /**
+     * Book a batch of transactions. Positive amounts are deposits and negative amounts withdrawals.
+     *
+     * @param items the transactions, in booking order per account.
+     * @return the result of each item, in the order of the batch.
+     * @throws IllegalArgumentException if the batch is empty or larger than transaction.batch.max-items.
+     */
+    public TransactionBatchResultDTO processBatch(List<TransactionDTO> items) throws IllegalArgumentException {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transaction");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxItems + " transactions");
+        }
+
+        long start = System.nanoTime();
+
+        // Group the positions of the items by account, keeping their order
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            groups.computeIfAbsent(items.get(i).getAccountNumber(), accountNumber -> new ArrayList<>()).add(i);
+        }
+        log.info("Booking batch of {} transactions for {} accounts", items.size(), groups.size());
+
+        Map<String, Future<List<TransactionBatchItemResultDTO>>> futures = new LinkedHashMap<>();
+        groups.forEach((accountNumber, positions) -> {
+            List<TransactionDTO> group = positions.stream().map(items::get).toList();
+            try {
+                futures.put(accountNumber, accountLaneExecutor.submit(accountNumber,
+                        () -> transactionService.processBatch(accountNumber, group)));
+            } catch (AccountBusyException e) {
+                futures.put(accountNumber, CompletableFuture.failedFuture(e));
+            }
+        });
+
+        TransactionBatchItemResultDTO[] results = new TransactionBatchItemResultDTO[items.size()];
+        futures.forEach((accountNumber, future) -> {
+            List<Integer> positions = groups.get(accountNumber);
+            List<TransactionBatchItemResultDTO> groupResults;
+            try {
+                groupResults = accountLaneExecutor.await(future);
+            } catch (RuntimeException e) {
+                String reason = rejectionReason(accountNumber, e);
+                groupResults = positions.stream()
+                        .map(position -> TransactionBatchItemResultDTO.rejected(items.get(position), reason))
+                        .toList();
+            }
+            for (int i = 0; i < positions.size(); i++) {
+                TransactionBatchItemResultDTO result = groupResults.get(i);
+                result.setIndex(positions.get(i));
+                results[positions.get(i)] = result;
+            }
+        });
+
+        int accepted = (int) Arrays.stream(results).filter(TransactionBatchItemResultDTO::isAccepted).count();
+        int rejected = results.length - accepted;
+        long elapsed = System.nanoTime() - start;
+
+        Timer.builder("transaction.batch.duration")
+                .description("Time to book a transaction batch")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("transaction.batch.items", "result", "accepted").increment(accepted);
+        meterRegistry.counter("transaction.batch.items", "result", "rejected").increment(rejected);
+        log.info("Batch booked: {} accepted, {} rejected, {} items/s", accepted, rejected,
+                elapsed > 0 ? Math.round(items.size() * 1e9 / elapsed) : items.size());
+
+        return new TransactionBatchResultDTO(accepted, rejected, Arrays.asList(results));
+    }
+
+    /**
+     * Get the reason reported to the client for a group whose booking failed. Only the messages of the business
+     * exceptions are passed on; any other failure, e.g. of the database, is logged and reported with a generic reason.
+     *
+     * @param accountNumber the account number of the group.
+     * @param e the exception the booking failed with.
+     * @return the reason.
+     */
+    private static String rejectionReason(String accountNumber, RuntimeException e) {
+        if (e instanceof AccountBusyException || e instanceof LimitExceededException || e instanceof EntityNotFoundException
+                || e instanceof IllegalArgumentException) {
+            log.warn("Booking the batch of account {} was rejected: {}", accountNumber, e.getMessage());
+            return e.getMessage();
+        }
+        log.error("Booking the batch of account {} failed", accountNumber, e);
+        return "Transaction could not be booked";
+    }
+}
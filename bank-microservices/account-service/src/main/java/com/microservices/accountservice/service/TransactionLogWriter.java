@@ -0,0 +1,187 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.repository.TransactionBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes transaction log rows behind the booking when transaction.log.write-behind is enabled.
+ * Rows are queued once the booking committed and a background thread inserts them in multi-row JDBC batches,
+ * so requests no longer pay for a separate insert each. Balances and daily buckets stay synchronous, so limit
+ * checks are unaffected; only readers of the log itself (history, statements, and limit checks with
+ * transaction.limits.use-buckets=false) may lag behind by up to one flush interval.
+ * Queued rows are lost if the process dies before they are flushed.
+ */
+@Slf4j
+@Service
+public class TransactionLogWriter {
+
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean writeBehind;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<TransactionBatchWriter.Row> queue;
+    private final Counter flushedRows;
+    private final Counter failedRows;
+    private final Counter synchronousFallbacks;
+    private final Timer flushTimer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public TransactionLogWriter(TransactionBatchWriter transactionBatchWriter,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${transaction.log.write-behind:false}") boolean writeBehind,
+                                @Value("${transaction.log.queue-capacity:10000}") int queueCapacity,
+                                @Value("${transaction.log.flush-size:500}") int flushSize,
+                                @Value("${transaction.log.flush-interval-ms:100}") long flushIntervalMillis) {
+        this.transactionBatchWriter = transactionBatchWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeBehind = writeBehind;
+        this.flushSize = flushSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushedRows = meterRegistry.counter("transaction.log.rows", "result", "flushed");
+        this.failedRows = meterRegistry.counter("transaction.log.rows", "result", "failed");
+        this.synchronousFallbacks = meterRegistry.counter("transaction.log.rows", "result", "synchronous");
+        this.flushTimer = Timer.builder("transaction.log.flush")
+                .description("Time to insert a batch of queued transaction log rows")
+                .register(meterRegistry);
+        Gauge.builder("transaction.log.queue.size", queue, BlockingQueue::size)
+                .description("Transaction log rows waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!writeBehind) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "transaction-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Transaction log write-behind enabled, queue capacity {}, flush size {}", queue.remainingCapacity(), flushSize);
+    }
+
+    /**
+     * Whether transaction log rows are written behind the booking.
+     *
+     * @return true if write-behind is enabled.
+     */
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Queue a transaction log row, to be flushed once the current transaction committed.
+     * Nothing is queued if the transaction rolls back. If the queue is full the row is inserted right away instead,
+     * in a new transaction, since the connection of the committed transaction is still bound while afterCommit runs
+     * and an insert on it would not be committed.
+     *
+     * @param accountId the ID of the account.
+     * @param amount the signed amount, negative for withdrawals.
+     * @param transactionDate the date of the transaction.
+     */
+    public void enqueue(Long accountId, BigDecimal amount, LocalDateTime transactionDate) {
+        TransactionBatchWriter.Row row = new TransactionBatchWriter.Row(accountId, amount, transactionDate,
+                TransactionBatchWriter.getCurrentUser());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(row);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                offer(row);
+            }
+        });
+    }
+
+    private void offer(TransactionBatchWriter.Row row) {
+        if (queue.offer(row)) {
+            return;
+        }
+        synchronousFallbacks.increment();
+        transactionTemplate.executeWithoutResult(status -> write(List.of(row)));
+    }
+
+    private void flushLoop() {
+        List<TransactionBatchWriter.Row> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TransactionBatchWriter.Row first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, flushSize - 1);
+                List<TransactionBatchWriter.Row> rows = List.copyOf(batch);
+                flushTimer.record(() -> write(rows));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while flushing transaction log rows", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insert the rows in one batch. If the batch fails, e.g. because the account of one row was deleted
+     * in the meantime, the rows are inserted one by one so the others are kept.
+     */
+    private void write(List<TransactionBatchWriter.Row> rows) {
+        try {
+            transactionBatchWriter.insertRows(rows);
+            flushedRows.increment(rows.size());
+        } catch (RuntimeException batchFailure) {
+            log.warn("Batch insert of {} transaction log rows failed, inserting them one by one", rows.size(), batchFailure);
+            for (TransactionBatchWriter.Row row : rows) {
+                try {
+                    transactionBatchWriter.insertRows(List.of(row));
+                    flushedRows.increment();
+                } catch (RuntimeException e) {
+                    failedRows.increment();
+                    log.error("Dropping transaction log row {}", row, e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.error("{} transaction log rows were not flushed before shutdown", queue.size());
+        }
+    }
+}
@@ -1,21 +1,39 @@
 package com.microservices.accountservice.service;
 
+import com.microservices.accountservice.dto.AccountSnapshotDTO;
+import com.microservices.accountservice.dto.TransactionBatchItemResultDTO;
 import com.microservices.accountservice.dto.TransactionDTO;
+import com.microservices.accountservice.dto.TransactionHistoryDTO;
+import com.microservices.accountservice.dto.TransactionHistoryPageDTO;
+import com.microservices.accountservice.dto.TransactionWindowTotalsDTO;
 import com.microservices.accountservice.enums.MemberRanking;
+import com.microservices.accountservice.enums.TransactionDirection;
 import com.microservices.accountservice.exception.LimitExceededException;
 import com.microservices.accountservice.model.Account;
 import com.microservices.accountservice.model.Limits;
 import com.microservices.accountservice.model.Transaction;
 import com.microservices.accountservice.repository.AccountRepository;
-import com.microservices.accountservice.repository.LimitsRepository;
+import com.microservices.accountservice.repository.TransactionBatchWriter;
+import com.microservices.accountservice.repository.TransactionBucketRepository;
 import com.microservices.accountservice.repository.TransactionRepository;
+import com.microservices.accountservice.util.StatementWriter;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,8 +41,18 @@ import java.time.LocalDateTime;
 public class TransactionService implements ITransactionService {
 
     private final AccountRepository accountRepository;
-    private final LimitsRepository limitsRepository;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final LimitsCache limitsCache;
     private final TransactionRepository transactionRepository;
+    private final TransactionBucketRepository transactionBucketRepository;
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final TransactionLogWriter transactionLogWriter;
+
+    @Value("${transaction.limits.use-buckets:true}")
+    private boolean useBuckets = true;
+
+    @Value("${transaction.history.max-page-size:500}")
+    private int maxHistoryPageSize = 500;
 
     /**
      * Adds money to the specified account.
@@ -35,12 +63,11 @@ public class TransactionService implements ITransactionService {
     @Override
     @Transactional
     public void addMoney(TransactionDTO transactionDTO) throws LimitExceededException {
-        // Fetch the account by account number
-        Account account = accountRepository.findByAccountNumber(transactionDTO.getAccountNumber())
-                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        // Resolve the account number to the account ID
+        Account account = findAccountReference(transactionDTO.getAccountNumber());
 
         // Fetch the limits for the account
-        Limits limits = limitsRepository.findByAccountId(account.getId())
+        Limits limits = limitsCache.findByAccountId(account.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Limits not found for account"));
 
         BigDecimal transactionAmount = transactionDTO.getAmount();
@@ -50,13 +77,13 @@ public class TransactionService implements ITransactionService {
         validateTransactionLimits(account, transactionAmount, limits, now, true);
 
         // Update the account balance
-        account.setBalance(account.getBalance().add(transactionAmount));
+        if (accountRepository.addToBalance(account.getId(), transactionAmount, now) == 0) {
+            accountSnapshotCache.evict(transactionDTO.getAccountNumber());
+            throw new IllegalArgumentException("Account not found");
+        }
 
         // Update the account ranking
-        updateAccountRanking(account);
-
-        // Save the updated account
-        accountRepository.save(account);
+        updateAccountRanking(account.getId(), transactionDTO.getAccountNumber());
 
         // Log the transaction
         logTransaction(account, transactionAmount, now, true);
@@ -70,12 +97,11 @@ public class TransactionService implements ITransactionService {
     @Override
     @Transactional
     public void withdrawMoney(TransactionDTO transactionDTO) throws LimitExceededException {
-        // Fetch the account by account number
-        Account account = accountRepository.findByAccountNumber(transactionDTO.getAccountNumber())
-                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        // Resolve the account number to the account ID
+        Account account = findAccountReference(transactionDTO.getAccountNumber());
 
         // Fetch the limits for the account
-        Limits limits = limitsRepository.findByAccountId(account.getId())
+        Limits limits = limitsCache.findByAccountId(account.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Limits not found for account"));
 
         BigDecimal transactionAmount = transactionDTO.getAmount();
@@ -84,19 +110,13 @@ public class TransactionService implements ITransactionService {
         // Validate the transaction limits for withdrawal
         validateTransactionLimits(account, transactionAmount, limits, now, false);
 
-        // Check if the account has sufficient balance for the withdrawal
-        if (account.getBalance().compareTo(transactionAmount) < 0) {
+        // Update the account balance, if it is sufficient for the withdrawal
+        if (accountRepository.withdrawFromBalance(account.getId(), transactionAmount, now) == 0) {
             throw new IllegalArgumentException("Insufficient balance");
         }
 
-        // Update the account balance
-        account.setBalance(account.getBalance().subtract(transactionAmount));
-
         // Update the account ranking
-        updateAccountRanking(account);
-
-        // Save the updated account
-        accountRepository.save(account);
+        updateAccountRanking(account.getId(), transactionDTO.getAccountNumber());
 
         // Log the transaction
         logTransaction(account, transactionAmount, now, false);
@@ -110,12 +130,11 @@ public class TransactionService implements ITransactionService {
     @Override
     @Transactional
     public void processTransaction(TransactionDTO transactionDTO) throws LimitExceededException {
-        // Fetch the account by account number
-        Account account = accountRepository.findByAccountNumber(transactionDTO.getAccountNumber())
-                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        // Resolve the account number to the account ID
+        Account account = findAccountReference(transactionDTO.getAccountNumber());
 
         // Fetch the limits for the account
-        Limits limits = limitsRepository.findByAccountId(account.getId())
+        Limits limits = limitsCache.findByAccountId(account.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Limits not found for account"));
 
         BigDecimal transactionAmount = transactionDTO.getAmount();
@@ -125,53 +144,325 @@ public class TransactionService implements ITransactionService {
         validateTransactionLimits(account, transactionAmount, limits, now, false);
 
         // Update the account balance
-        account.setBalance(account.getBalance().subtract(transactionAmount));
+        if (accountRepository.addToBalance(account.getId(), transactionAmount.negate(), now) == 0) {
+            accountSnapshotCache.evict(transactionDTO.getAccountNumber());
+            throw new IllegalArgumentException("Account not found");
+        }
 
         // Update the account ranking
-        updateAccountRanking(account);
-
-        // Save the updated account
-        accountRepository.save(account);
+        updateAccountRanking(account.getId(), transactionDTO.getAccountNumber());
 
         // Log the transaction
         logTransaction(account, transactionAmount, now, false);
     }
 
     /**
-     * Update the account ranking based on the account balance.
-     * @param account the account to update.
+     * Transfers money between two accounts in a single transaction.
+     * Both account rows are locked in the order of their IDs before anything is checked, so crossed transfers
+     * between the same accounts wait for each other instead of deadlocking.
+     *
+     * @param fromAccountNumber the account number to withdraw from.
+     * @param toAccountNumber the account number to deposit to.
+     * @param amount the amount to transfer.
+     * @throws LimitExceededException if either leg exceeds the limits of its account.
+     */
+    @Override
+    @Transactional
+    public void transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) throws LimitExceededException {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (Objects.equals(fromAccountNumber, toAccountNumber)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+
+        // Resolve both account IDs without loading the entities, which are loaded with their lock below
+        Long fromId = accountRepository.findIdByAccountNumber(fromAccountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        Long toId = accountRepository.findIdByAccountNumber(toAccountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+
+        // Lock both rows, lowest ID first
+        Account first = lockAccount(Math.min(fromId, toId));
+        Account second = lockAccount(Math.max(fromId, toId));
+        Account fromAccount = first.getId().equals(fromId) ? first : second;
+        Account toAccount = first.getId().equals(fromId) ? second : first;
+
+        Limits fromLimits = limitsCache.findByAccountId(fromAccount.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Limits not found for account"));
+        Limits toLimits = limitsCache.findByAccountId(toAccount.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Limits not found for account"));
+
+        LocalDateTime now = LocalDateTime.now();
+
+        // Validate the withdrawal leg and the deposit leg
+        validateTransactionLimits(fromAccount, amount, fromLimits, now, false);
+        validateTransactionLimits(toAccount, amount, toLimits, now, true);
+
+        if (accountRepository.withdrawFromBalance(fromAccount.getId(), amount, now) == 0) {
+            throw new IllegalArgumentException("Insufficient balance");
+        }
+        if (accountRepository.addToBalance(toAccount.getId(), amount, now) == 0) {
+            throw new IllegalArgumentException("Account not found");
+        }
+
+        updateAccountRanking(fromAccount.getId(), fromAccountNumber);
+        updateAccountRanking(toAccount.getId(), toAccountNumber);
+
+        logTransaction(fromAccount, amount, now, false);
+        logTransaction(toAccount, amount, now, true);
+    }
+
+    /**
+     * Resolve an account number through the account cache to a reference to the account, without loading the entity.
+     * @param accountNumber the account number.
+     * @return a reference to the account.
+     */
+    private Account findAccountReference(String accountNumber) {
+        AccountSnapshotDTO snapshot = accountSnapshotCache.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        return accountRepository.getReferenceById(snapshot.getId());
+    }
+
+    /**
+     * Load an account and lock its row until the end of the current transaction.
+     * @param accountId the ID of the account.
+     * @return the locked account.
+     */
+    private Account lockAccount(Long accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+    }
+
+    /**
+     * Books a batch of transactions of one account in a single database transaction.
+     * Positive amounts are deposits and negative amounts withdrawals. The limit totals are fetched once
+     * and then carried forward item by item, so every item is checked against the items accepted before it.
+     * Rejected items are reported instead of failing the batch.
+     *
+     * @param accountNumber the account number all items belong to.
+     * @param items the transactions, in booking order.
+     * @return the result of each item, in the order of the items.
      */
-    private void updateAccountRanking(Account account) {
-        BigDecimal balance = account.getBalance();
+    @Override
+    @Transactional
+    public List<TransactionBatchItemResultDTO> processBatch(String accountNumber, List<TransactionDTO> items) {
+        List<TransactionBatchItemResultDTO> results = new ArrayList<>(items.size());
+
+        Optional<AccountSnapshotDTO> snapshotOpt = accountSnapshotCache.findByAccountNumber(accountNumber);
+        if (snapshotOpt.isEmpty()) {
+            items.forEach(item -> results.add(TransactionBatchItemResultDTO.rejected(item, "Account not found")));
+            return results;
+        }
+        Account account = accountRepository.getReferenceById(snapshotOpt.get().getId());
+
+        Optional<Limits> limitsOpt = limitsCache.findByAccountId(account.getId());
+        if (limitsOpt.isEmpty()) {
+            items.forEach(item -> results.add(TransactionBatchItemResultDTO.rejected(item, "Limits not found for account")));
+            return results;
+        }
+        Limits limits = limitsOpt.get();
+
+        LocalDateTime now = LocalDateTime.now();
+        TransactionWindowTotalsDTO totals = findWindowTotals(account, now);
+        BigDecimal balance = accountRepository.findBalanceById(account.getId());
+        if (balance == null) {
+            accountSnapshotCache.evict(accountNumber);
+            items.forEach(item -> results.add(TransactionBatchItemResultDTO.rejected(item, "Account not found")));
+            return results;
+        }
+        BigDecimal depositTotal = BigDecimal.ZERO;
+        BigDecimal withdrawTotal = BigDecimal.ZERO;
+        List<BigDecimal> acceptedAmounts = new ArrayList<>();
+
+        for (TransactionDTO item : items) {
+            BigDecimal amount = item.getAmount();
+            if (amount == null || amount.signum() == 0) {
+                results.add(TransactionBatchItemResultDTO.rejected(item, "Amount must not be zero"));
+                continue;
+            }
+
+            boolean isDeposit = amount.signum() > 0;
+            BigDecimal transactionAmount = amount.abs();
+            try {
+                checkTransactionLimits(transactionAmount, limits, totals, isDeposit);
+            } catch (LimitExceededException e) {
+                results.add(TransactionBatchItemResultDTO.rejected(item, e.getMessage()));
+                continue;
+            }
+            if (!isDeposit && balance.compareTo(transactionAmount) < 0) {
+                results.add(TransactionBatchItemResultDTO.rejected(item, "Insufficient balance"));
+                continue;
+            }
+
+            addToTotals(totals, transactionAmount, isDeposit);
+            if (isDeposit) {
+                depositTotal = depositTotal.add(transactionAmount);
+                balance = balance.add(transactionAmount);
+            } else {
+                withdrawTotal = withdrawTotal.add(transactionAmount);
+                balance = balance.subtract(transactionAmount);
+            }
+            acceptedAmounts.add(amount);
+            results.add(TransactionBatchItemResultDTO.accepted(item));
+        }
+
+        if (acceptedAmounts.isEmpty()) {
+            return results;
+        }
 
-        if (balance.compareTo(new BigDecimal("5000")) <= 0) {
-            account.setMemberRanking(MemberRanking.STANDARD);
-        } else if (balance.compareTo(new BigDecimal("5000")) > 0 && balance.compareTo(new BigDecimal("100000")) <= 0) {
-            account.setMemberRanking(MemberRanking.METAL);
-        } else if (balance.compareTo(new BigDecimal("100000")) > 0 && balance.compareTo(new BigDecimal("200000")) <= 0) {
-            account.setMemberRanking(MemberRanking.PRO);
-        } else if (balance.compareTo(new BigDecimal("200000")) > 0) {
-            account.setMemberRanking(MemberRanking.ULTIMATE);
+        // Apply the net movement at once; a concurrent withdrawal may have spent the balance read above,
+        // which fails the whole group like a single withdrawal and is not retried
+        BigDecimal net = depositTotal.subtract(withdrawTotal);
+        if (net.signum() > 0) {
+            if (accountRepository.addToBalance(account.getId(), net, now) == 0) {
+                throw new IllegalArgumentException("Account not found");
+            }
+        } else if (net.signum() < 0 && accountRepository.withdrawFromBalance(account.getId(), net.negate(), now) == 0) {
+            throw new IllegalArgumentException("Insufficient balance");
         }
+        updateAccountRanking(account.getId(), accountNumber);
+
+        transactionBatchWriter.insertTransactions(account, acceptedAmounts, now);
+        addToBucket(account, depositTotal, withdrawTotal, now);
+        return results;
     }
 
     /**
-     * Log the transaction to the database.
+     * Reads a page of the transaction history of the current logged-in user's account, newest first.
+     * Pages are addressed by the cursor of the last entry of the previous page rather than by an offset.
+     *
+     * @param from the earliest transaction date to include.
+     * @param to the latest transaction date to include.
+     * @param direction the direction to include, or null for both.
+     * @param cursorDate the nextCursorDate of the previous page, or null for the first page.
+     * @param cursorId the nextCursorId of the previous page, or null for the first page.
+     * @param size the maximum number of entries of the page.
+     * @return the page, with the cursor of the next page if there is one.
+     * @throws EntityNotFoundException if the current user has no account.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryPageDTO getHistory(LocalDateTime from, LocalDateTime to, TransactionDirection direction,
+                                                LocalDateTime cursorDate, Long cursorId, int size) throws EntityNotFoundException {
+        if (size < 1 || size > maxHistoryPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxHistoryPageSize);
+        }
+        if ((cursorDate == null) != (cursorId == null)) {
+            throw new IllegalArgumentException("cursorDate and cursorId must be given together");
+        }
+        // A cursor after the end of the range belongs to another range, e.g. an earlier request with a later 'to'
+        if (cursorDate != null && cursorDate.isAfter(to)) {
+            throw new IllegalArgumentException("cursorDate must not be after 'to'");
+        }
+
+        Long accountId = getCurrentAccountId();
+
+        // The first page starts at the end of the range, after every transaction of that instant
+        LocalDateTime seekDate = cursorDate != null ? cursorDate : to;
+        long seekId = cursorId != null ? cursorId : Long.MAX_VALUE;
+        boolean deposits = direction != TransactionDirection.WITHDRAWAL;
+        boolean withdrawals = direction != TransactionDirection.DEPOSIT;
+
+        // Fetch one extra entry to know whether there is a next page
+        List<TransactionHistoryDTO> transactions = new ArrayList<>(transactionRepository.findHistoryPage(
+                accountId, from, seekDate, seekId, deposits, withdrawals, PageRequest.of(0, size + 1)));
+        if (transactions.size() <= size) {
+            return new TransactionHistoryPageDTO(transactions, null, null);
+        }
+
+        transactions.remove(size);
+        TransactionHistoryDTO last = transactions.get(size - 1);
+        return new TransactionHistoryPageDTO(transactions, last.getTransactionDate(), last.getId());
+    }
+
+    /**
+     * Writes the statement of an account for a date range, oldest first, streaming the rows from the database to the writer.
+     *
+     * @param accountId the ID of the account.
+     * @param from the earliest transaction date to include.
+     * @param to the latest transaction date to include.
+     * @param writer the writer to write the rows to.
+     * @return the number of rows written.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long writeStatement(Long accountId, LocalDateTime from, LocalDateTime to, StatementWriter writer) {
+        try (Stream<TransactionHistoryDTO> transactions = transactionRepository.streamStatement(accountId, from, to)) {
+            transactions.forEach(writer::write);
+        }
+        return writer.finish();
+    }
+
+    /**
+     * Find the account ID of the current logged-in user.
+     *
+     * @return the account ID.
+     * @throws EntityNotFoundException if the current user has no account.
+     */
+    @Override
+    public Long getCurrentAccountId() throws EntityNotFoundException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new EntityNotFoundException("Account does not exist");
+        }
+        return accountRepository.findIdByUsername(authentication.getName())
+                .orElseThrow(() -> new EntityNotFoundException("Account does not exist"));
+    }
+
+    /**
+     * Update the account ranking based on the account balance.
+     * The balance is read back after the update, so the ranking reflects concurrent movements that committed first.
+     * A changed ranking evicts the cached identity of the account.
+     * @param accountId the ID of the account to update.
+     * @param accountNumber the account number of the account.
+     */
+    private void updateAccountRanking(Long accountId, String accountNumber) {
+        BigDecimal balance = accountRepository.findBalanceById(accountId);
+        if (accountRepository.updateMemberRanking(accountId, MemberRanking.forBalance(balance), LocalDateTime.now()) > 0) {
+            accountSnapshotCache.evict(accountNumber);
+        }
+    }
+
+    /**
+     * Log the transaction to the database, or queue it for the write-behind flusher when that is enabled.
      * @param account the account to log the transaction for.
      * @param transactionAmount the amount of the transaction.
      * @param now the current date and time.
      * @param isDeposit true if the transaction is a deposit, false if it is a withdrawal.
      */
     private void logTransaction(Account account, BigDecimal transactionAmount, LocalDateTime now, boolean isDeposit) {
-        Transaction transaction = new Transaction();
-        transaction.setTransactionAmount(isDeposit ? transactionAmount : transactionAmount.negate());
-        transaction.setTransactionDate(now);
-        transaction.setAccount(account);
-        transactionRepository.save(transaction);
+        BigDecimal signedAmount = isDeposit ? transactionAmount : transactionAmount.negate();
+        if (transactionLogWriter.isWriteBehind()) {
+            transactionLogWriter.enqueue(account.getId(), signedAmount, now);
+        } else {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionAmount(signedAmount);
+            transaction.setTransactionDate(now);
+            transaction.setAccount(account);
+            transactionRepository.save(transaction);
+        }
+
+        // Keep the daily totals in step with the log, in the same database transaction
+        addToBucket(account, isDeposit ? transactionAmount : BigDecimal.ZERO, isDeposit ? BigDecimal.ZERO : transactionAmount, now);
+    }
+
+    /**
+     * Add the amounts to the daily bucket of the account with a single upsert, creating the bucket on the first booking of the day.
+     * @param account the account the transactions belong to.
+     * @param depositTotal the amount to add to the deposit total.
+     * @param withdrawTotal the amount to add to the withdrawal total.
+     * @param now the date and time of the transactions.
+     */
+    private void addToBucket(Account account, BigDecimal depositTotal, BigDecimal withdrawTotal, LocalDateTime now) {
+        transactionBucketRepository.addToBucket(account.getId(), now.toLocalDate(), depositTotal, withdrawTotal, now,
+                TransactionBatchWriter.getCurrentUser());
     }
 
     /**
      * Validate the transaction limits for a given account.
+     * All window totals are fetched with a single aggregate query, either over the daily buckets (the default)
+     * or over the transaction log itself when transaction.limits.use-buckets is false.
      * @param account the account to be validated.
      * @param transactionAmount the amount of the transaction.
      * @param limits the limits of the account.
@@ -181,6 +472,18 @@ public class TransactionService implements ITransactionService {
      */
     @Override
     public void validateTransactionLimits(Account account, BigDecimal transactionAmount, Limits limits, LocalDateTime now, boolean isDeposit) throws LimitExceededException {
+        checkTransactionLimits(transactionAmount, limits, findWindowTotals(account, now), isDeposit);
+    }
+
+    /**
+     * Check a transaction against the limits, given the totals already booked in the limit windows.
+     * @param transactionAmount the amount of the transaction.
+     * @param limits the limits of the account.
+     * @param totals the deposit and withdrawal totals of the limit windows.
+     * @param isDeposit true if the transaction is a deposit, false if it is a withdrawal.
+     * @throws LimitExceededException if the transaction exceeds any limits.
+     */
+    private void checkTransactionLimits(BigDecimal transactionAmount, Limits limits, TransactionWindowTotalsDTO totals, boolean isDeposit) throws LimitExceededException {
         if (transactionAmount.compareTo(limits.getTransactionLimit()) > 0) {
             throw new LimitExceededException("Transaction limit exceeded");
         }
@@ -189,37 +492,54 @@ public class TransactionService implements ITransactionService {
         BigDecimal weeklyLimit = isDeposit ? limits.getWeeklyDepositLimit() : limits.getWeeklyWithdrawLimit();
         BigDecimal monthlyLimit = isDeposit ? limits.getMonthlyDepositLimit() : limits.getMonthlyWithdrawLimit();
 
-        BigDecimal dailyTotal = transactionRepository.findByAccountAndTransactionDateBetween(account, now.toLocalDate().atStartOfDay(), now)
-                .stream()
-                .filter(transaction -> (isDeposit && transaction.getTransactionAmount().compareTo(BigDecimal.ZERO) > 0) ||
-                        (!isDeposit && transaction.getTransactionAmount().compareTo(BigDecimal.ZERO) < 0))
-                .map(transaction -> transaction.getTransactionAmount().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        BigDecimal dailyTotal = isDeposit ? totals.getDailyDepositTotal() : totals.getDailyWithdrawTotal();
         if (dailyTotal.add(transactionAmount).compareTo(dailyLimit) > 0) {
             throw new LimitExceededException("Daily limit exceeded");
         }
 
-        BigDecimal weeklyTotal = transactionRepository.findByAccountAndTransactionDateBetween(account, now.minusDays(7), now)
-                .stream()
-                .filter(transaction -> (isDeposit && transaction.getTransactionAmount().compareTo(BigDecimal.ZERO) > 0) ||
-                        (!isDeposit && transaction.getTransactionAmount().compareTo(BigDecimal.ZERO) < 0))
-                .map(transaction -> transaction.getTransactionAmount().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        BigDecimal weeklyTotal = isDeposit ? totals.getWeeklyDepositTotal() : totals.getWeeklyWithdrawTotal();
         if (weeklyTotal.add(transactionAmount).compareTo(weeklyLimit) > 0) {
             throw new LimitExceededException("Weekly limit exceeded");
         }
 
-        BigDecimal monthlyTotal = transactionRepository.findByAccountAndTransactionDateBetween(account, now.minusDays(30), now)
-                .stream()
-                .filter(transaction -> (isDeposit && transaction.getTransactionAmount().compareTo(BigDecimal.ZERO) > 0) ||
-                        (!isDeposit && transaction.getTransactionAmount().compareTo(BigDecimal.ZERO) < 0))
-                .map(transaction -> transaction.getTransactionAmount().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        BigDecimal monthlyTotal = isDeposit ? totals.getMonthlyDepositTotal() : totals.getMonthlyWithdrawTotal();
         if (monthlyTotal.add(transactionAmount).compareTo(monthlyLimit) > 0) {
             throw new LimitExceededException("Monthly limit exceeded");
         }
     }
+
+    /**
+     * Add an accepted transaction to the totals of all limit windows.
+     * @param totals the totals to update.
+     * @param transactionAmount the amount of the transaction.
+     * @param isDeposit true if the transaction is a deposit, false if it is a withdrawal.
+     */
+    private static void addToTotals(TransactionWindowTotalsDTO totals, BigDecimal transactionAmount, boolean isDeposit) {
+        if (isDeposit) {
+            totals.setDailyDepositTotal(totals.getDailyDepositTotal().add(transactionAmount));
+            totals.setWeeklyDepositTotal(totals.getWeeklyDepositTotal().add(transactionAmount));
+            totals.setMonthlyDepositTotal(totals.getMonthlyDepositTotal().add(transactionAmount));
+        } else {
+            totals.setDailyWithdrawTotal(totals.getDailyWithdrawTotal().add(transactionAmount));
+            totals.setWeeklyWithdrawTotal(totals.getWeeklyWithdrawTotal().add(transactionAmount));
+            totals.setMonthlyWithdrawTotal(totals.getMonthlyWithdrawTotal().add(transactionAmount));
+        }
+    }
+
+    /**
+     * Find the deposit and withdrawal totals of the daily, weekly and monthly windows ending now.
+     * The bucket windows start at the beginning of the day 7 and 30 days ago, the transaction log
+     * windows exactly 7 and 30 days ago.
+     * @param account the account to find the totals for.
+     * @param now the current date and time.
+     * @return the window totals.
+     */
+    private TransactionWindowTotalsDTO findWindowTotals(Account account, LocalDateTime now) {
+        if (useBuckets) {
+            return transactionBucketRepository.sumWindowTotals(account.getId(), now.toLocalDate(),
+                    now.minusDays(7).toLocalDate(), now.minusDays(30).toLocalDate());
+        }
+        return transactionRepository.sumWindowTotals(account.getId(), now.toLocalDate().atStartOfDay(),
+                now.minusDays(7), now.minusDays(30), now);
+    }
 }
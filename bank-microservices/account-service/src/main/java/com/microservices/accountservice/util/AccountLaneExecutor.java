@@ -0,0 +1,156 @@
+package com.microservices.accountservice.util;
+
+import com.microservices.accountservice.exception.AccountBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs account operations on a fixed set of single-threaded lanes.
+ * Account numbers are hashed onto the lanes, so operations on one account run one after the other
+ * while operations on accounts of different lanes run in parallel. Callers block until their operation completed.
+ * Each lane queues at most transaction.lanes.queue-capacity operations; further operations are rejected with an
+ * AccountBusyException instead of piling up behind a hot account.
+ */
+@Slf4j
+@Component
+public class AccountLaneExecutor {
+
+    private static final ThreadLocal<Integer> CURRENT_LANE = new ThreadLocal<>();
+
+    private final ExecutorService[] lanes;
+
+    public AccountLaneExecutor(@Value("${transaction.lanes.count:16}") int laneCount,
+                               @Value("${transaction.lanes.queue-capacity:100}") int queueCapacity) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("transaction.lanes.count must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("transaction.lanes.queue-capacity must be at least 1");
+        }
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            int lane = i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(() -> {
+                    CURRENT_LANE.set(lane);
+                    runnable.run();
+                }, "account-lane-" + lane);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        log.info("Account lane executor started with {} lanes of {} queued operations", laneCount, queueCapacity);
+    }
+
+    /**
+     * Run an operation on the lane of the account and wait for its result.
+     * The security context of the caller is propagated to the lane.
+     * An operation that is already running on the lane of the account is executed directly.
+     *
+     * @param accountNumber the account number the operation works on.
+     * @param operation the operation to run.
+     * @return the result of the operation.
+     * @param <T> the type of the result.
+     * @throws AccountBusyException if the lane of the account is full.
+     */
+    public <T> T execute(String accountNumber, Supplier<T> operation) {
+        return await(submit(accountNumber, operation));
+    }
+
+    /**
+     * Queue an operation on the lane of the account without waiting for it.
+     * The security context of the caller is propagated to the lane.
+     * An operation that is already running on the lane of the account is executed directly.
+     *
+     * @param accountNumber the account number the operation works on.
+     * @param operation the operation to run.
+     * @return the future result of the operation.
+     * @param <T> the type of the result.
+     * @throws AccountBusyException if the lane of the account is full.
+     */
+    public <T> Future<T> submit(String accountNumber, Supplier<T> operation) {
+        int lane = laneOf(accountNumber);
+        if (Objects.equals(CURRENT_LANE.get(), lane)) {
+            FutureTask<T> task = new FutureTask<>(operation::get);
+            task.run();
+            return task;
+        }
+        try {
+            return lanes[lane].submit(new DelegatingSecurityContextCallable<>(operation::get));
+        } catch (RejectedExecutionException e) {
+            log.warn("Lane {} is full, rejecting operation on account {}", lane, accountNumber);
+            throw new AccountBusyException("Too many operations are waiting for this account, please try again later");
+        }
+    }
+
+    /**
+     * Wait for the result of an operation queued on a lane, rethrowing its exception unchanged.
+     *
+     * @param future the future result of the operation.
+     * @return the result of the operation.
+     * @param <T> the type of the result.
+     */
+    public <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for account operation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Run an operation without a result on the lane of the account and wait for it to complete.
+     *
+     * @param accountNumber the account number the operation works on.
+     * @param operation the operation to run.
+     * @throws AccountBusyException if the lane of the account is full.
+     */
+    public void execute(String accountNumber, Runnable operation) {
+        execute(accountNumber, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Find the lane of an account.
+     *
+     * @param accountNumber the account number.
+     * @return the index of the lane.
+     */
+    int laneOf(String accountNumber) {
+        return Math.floorMod(Objects.hashCode(accountNumber), lanes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
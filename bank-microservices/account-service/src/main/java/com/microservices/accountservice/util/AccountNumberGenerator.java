@@ -0,0 +1,115 @@
+package com.microservices.accountservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out account numbers from blocks reserved on the account_number_sequence table.
+ * Every number is a 9-digit sequence value followed by a Luhn check digit, so numbers are unique across
+ * instances without querying existing accounts. A block is reserved in its own transaction, so it stays reserved
+ * even if the account creation that needed it rolls back; the unused rest of a block is skipped on restart.
+ */
+@Slf4j
+@Component
+public class AccountNumberGenerator {
+
+    private static final String SEQUENCE_NAME = "account";
+    private static final long LAST_VALUE = 999_999_999L;
+
+    private static final String RESERVE_BLOCK =
+            "UPDATE account_number_sequence SET next_value = next_value + ? WHERE sequence_name = ?";
+    private static final String FIND_NEXT_VALUE =
+            "SELECT next_value FROM account_number_sequence WHERE sequence_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private long nextValue;
+    private long blockEnd;
+
+    public AccountNumberGenerator(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${account.number.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("account.number.block-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Get the next account number, reserving a new block first when the current one is used up.
+     *
+     * @return the account number.
+     * @throws IllegalStateException if the sequence is missing or exhausted.
+     */
+    public synchronized String next() {
+        if (nextValue == blockEnd) {
+            reserveBlock();
+        }
+        long value = nextValue++;
+        return String.valueOf(value) + checkDigit(value);
+    }
+
+    /**
+     * Check whether an account number ends with the correct Luhn check digit.
+     *
+     * @param accountNumber the account number.
+     * @return true if the check digit matches, false otherwise.
+     */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || !accountNumber.matches("\\d{2,18}")) {
+            return false;
+        }
+        int last = accountNumber.length() - 1;
+        long payload = Long.parseLong(accountNumber.substring(0, last));
+        return checkDigit(payload) == accountNumber.charAt(last) - '0';
+    }
+
+    /**
+     * Compute the Luhn check digit of a number.
+     *
+     * @param value the number without its check digit.
+     * @return the check digit.
+     */
+    static int checkDigit(long value) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = value; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private void reserveBlock() {
+        Long reservedEnd = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(RESERVE_BLOCK, blockSize, SEQUENCE_NAME) == 0) {
+                throw new IllegalStateException("Account number sequence does not exist");
+            }
+            return jdbcTemplate.queryForObject(FIND_NEXT_VALUE, Long.class, SEQUENCE_NAME);
+        });
+        long reservedStart = reservedEnd - blockSize;
+        if (reservedStart > LAST_VALUE) {
+            throw new IllegalStateException("Account numbers are exhausted");
+        }
+        nextValue = reservedStart;
+        blockEnd = Math.min(reservedEnd, LAST_VALUE + 1);
+        log.info("Reserved account numbers {} to {}", nextValue, blockEnd - 1);
+    }
+}
@@ -1,19 +1,50 @@
 package com.microservices.accountservice.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Verifies JWT tokens and reads their claims.
+ * The claims of verified tokens are cached by the SHA-256 digest of the token until the token expires,
+ * capped at jwt.cache.max-ttl, so a token is verified once rather than on every request.
+ * Cached claims are shared between requests and must not be modified.
+ */
 @Component
 public class JwtTokenProvider {
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtTokenProvider(MeterRegistry meterRegistry,
+                            @Value("${jwt.cache.max-size:100000}") long maxSize,
+                            @Value("${jwt.cache.max-ttl:1h}") Duration maxTtl) {
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(maxTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.tokens");
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -24,7 +55,13 @@ public class JwtTokenProvider {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+        String digest = hashToken(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims == null) {
+            claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -35,12 +72,62 @@ public class JwtTokenProvider {
         return null;
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Validate a token and return its claims, parsing it only once.
+     *
+     * @param token the JWT token.
+     * @return the claims of the token, or null if the token is invalid.
+     */
+    public Claims parseValidClaims(String token) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
-            return true;
+            return extractAllClaims(token);
         } catch (Exception e) {
-            return false;
+            return null;
+        }
+    }
+
+    public boolean validateToken(String token) {
+        return parseValidClaims(token) != null;
+    }
+
+    /**
+     * Hash a token the way user-service stores revoked tokens.
+     *
+     * @param token the JWT token.
+     * @return the SHA-256 digest of the token as 64 lowercase hex characters.
+     */
+    public static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expires cached claims when their token expires, or after the maximum time to live if that comes first.
+     */
+    private record TokenExpiry(long maxTtlNanos) implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,108 @@
+package com.microservices.accountservice.util;
+
+import com.microservices.accountservice.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries operations that fail because of an optimistic lock conflict on a versioned entity.
+ * The operation has to start its own transaction, so every attempt re-reads the entities it updates.
+ * Between attempts it waits for an exponentially growing, randomly jittered backoff.
+ * Only operations that read a versioned entity and write it back can conflict, i.e. account updates;
+ * money movements update balances with atomic statements and are not retried.
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter conflicts;
+    private final Counter exhausted;
+    private final DistributionSummary attempts;
+
+    public OptimisticLockRetry(MeterRegistry meterRegistry,
+                               @Value("${account.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${account.retry.initial-backoff-ms:20}") long initialBackoffMillis,
+                               @Value("${account.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("account.retry.max-attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.conflicts = Counter.builder("account.optimistic_lock.conflicts")
+                .description("Optimistic lock conflicts on account updates")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("account.optimistic_lock.exhausted")
+                .description("Account updates that failed after the last retry")
+                .register(meterRegistry);
+        this.attempts = DistributionSummary.builder("account.optimistic_lock.attempts")
+                .description("Attempts needed by successful account updates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run an operation, retrying it on optimistic lock conflicts.
+     *
+     * @param operation the name of the operation, used in the log.
+     * @param action the operation to run.
+     * @return the result of the operation.
+     * @param <T> the type of the result.
+     * @throws ConcurrentUpdateException if the operation still conflicts after the last attempt.
+     */
+    public <T> T execute(String operation, Supplier<T> action) throws ConcurrentUpdateException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = action.get();
+                attempts.record(attempt);
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up {} after {} conflicting attempts", operation, attempt);
+                    exhausted.increment();
+                    throw new ConcurrentUpdateException("The account was modified concurrently, please try again", e);
+                }
+                log.info("Optimistic lock conflict on {} (attempt {}), retrying", operation, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Run an operation without a result, retrying it on optimistic lock conflicts.
+     *
+     * @param operation the name of the operation, used in the log.
+     * @param action the operation to run.
+     * @throws ConcurrentUpdateException if the operation still conflicts after the last attempt.
+     */
+    public void execute(String operation, Runnable action) throws ConcurrentUpdateException {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting to retry the update", e);
+        }
+    }
+}
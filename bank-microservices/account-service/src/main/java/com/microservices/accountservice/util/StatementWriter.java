@@ -0,0 +1,72 @@
+package com.microservices.accountservice.util;
+
+import com.microservices.accountservice.dto.TransactionHistoryDTO;
+import com.microservices.accountservice.enums.StatementFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes statement rows to an output stream one at a time, in CSV or NDJSON.
+ * Nothing but the output buffer is held, so exports of any size run in constant memory.
+ * The values are ids, ISO dates and plain decimals, which need no quoting or escaping in either format.
+ */
+public class StatementWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedWriter writer;
+    private final StatementFormat format;
+    private long rows;
+
+    public StatementWriter(OutputStream outputStream, StatementFormat format) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.format = format;
+        if (format == StatementFormat.CSV) {
+            writeLine("id,transactionDate,transactionAmount");
+        }
+    }
+
+    /**
+     * Write one statement row.
+     *
+     * @param transaction the transaction to write.
+     */
+    public void write(TransactionHistoryDTO transaction) {
+        String amount = transaction.getTransactionAmount().toPlainString();
+        if (format == StatementFormat.CSV) {
+            writeLine(transaction.getId() + "," + transaction.getTransactionDate() + "," + amount);
+        } else {
+            writeLine("{\"id\":" + transaction.getId() + ",\"transactionDate\":\"" + transaction.getTransactionDate()
+                    + "\",\"transactionAmount\":" + amount + "}");
+        }
+        rows++;
+    }
+
+    /**
+     * Flush the buffered rows to the output stream.
+     *
+     * @return the number of rows written.
+     */
+    public long finish() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
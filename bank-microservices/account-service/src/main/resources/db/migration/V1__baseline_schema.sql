@@ -0,0 +1,61 @@
+-- Baseline of the account-service schema as previously generated by Hibernate.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE account
+(
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    created_date   DATETIME(6),
+    updated_date   DATETIME(6),
+    created_by     VARCHAR(255),
+    updated_by     VARCHAR(255),
+    is_active      BIT            NOT NULL,
+    version        BIGINT,
+    username       VARCHAR(255)   NOT NULL,
+    email          VARCHAR(255)   NOT NULL,
+    account_number VARCHAR(255)   NOT NULL,
+    member_ranking VARCHAR(255)   NOT NULL,
+    balance        DECIMAL(19, 4) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_account_username UNIQUE (username),
+    CONSTRAINT ux_account_account_number UNIQUE (account_number)
+);
+
+CREATE TABLE limits
+(
+    id                     BIGINT         NOT NULL AUTO_INCREMENT,
+    created_date           DATETIME(6),
+    updated_date           DATETIME(6),
+    created_by             VARCHAR(255),
+    updated_by             VARCHAR(255),
+    is_active              BIT            NOT NULL,
+    version                BIGINT,
+    daily_limit            DECIMAL(38, 2) NOT NULL,
+    weekly_limit           DECIMAL(38, 2) NOT NULL,
+    monthly_limit          DECIMAL(38, 2) NOT NULL,
+    transaction_limit      DECIMAL(38, 2) NOT NULL,
+    daily_withdraw_limit   DECIMAL(38, 2) NOT NULL,
+    daily_deposit_limit    DECIMAL(38, 2) NOT NULL,
+    weekly_withdraw_limit  DECIMAL(38, 2) NOT NULL,
+    weekly_deposit_limit   DECIMAL(38, 2) NOT NULL,
+    monthly_withdraw_limit DECIMAL(38, 2) NOT NULL,
+    monthly_deposit_limit  DECIMAL(38, 2) NOT NULL,
+    account_id             BIGINT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_limits_account FOREIGN KEY (account_id) REFERENCES account (id)
+);
+
+CREATE TABLE transaction
+(
+    id                 BIGINT         NOT NULL AUTO_INCREMENT,
+    created_date       DATETIME(6),
+    updated_date       DATETIME(6),
+    created_by         VARCHAR(255),
+    updated_by         VARCHAR(255),
+    is_active          BIT            NOT NULL,
+    version            BIGINT,
+    transaction_amount DECIMAL(38, 2) NOT NULL,
+    transaction_date   DATETIME(6)    NOT NULL,
+    account_id         BIGINT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transaction_account FOREIGN KEY (account_id) REFERENCES account (id)
+);
@@ -0,0 +1,3 @@
+-- Limit checks and history reads filter the log by account and a date range and only need the amount.
+-- The composite index answers them without touching the table rows.
+CREATE INDEX ix_transaction_account_date_amount ON transaction (account_id, transaction_date, transaction_amount);
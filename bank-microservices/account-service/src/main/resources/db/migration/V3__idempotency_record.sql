@@ -0,0 +1,19 @@
+-- Outcomes of transaction requests sent with an Idempotency-Key header, so retried requests are not booked twice.
+-- Records are purged by creation date once they are older than the retention period.
+CREATE TABLE idempotency_record
+(
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    created_date    DATETIME(6),
+    updated_date    DATETIME(6),
+    created_by      VARCHAR(255),
+    updated_by      VARCHAR(255),
+    is_active       BIT          NOT NULL,
+    version         BIGINT,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    response_status INT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_idempotency_record_key UNIQUE (idempotency_key)
+);
+
+CREATE INDEX ix_idempotency_record_created_date ON idempotency_record (created_date);
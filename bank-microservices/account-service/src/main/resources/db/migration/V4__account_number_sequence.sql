@@ -0,0 +1,11 @@
+-- Sequence account numbers are reserved from in blocks, see AccountNumberGenerator.
+-- Numbers start at 100000000 and get a check digit appended, so they are 10 digits long
+-- and cannot collide with the randomly drawn numbers of at most 9 digits issued before.
+CREATE TABLE account_number_sequence
+(
+    sequence_name VARCHAR(64) NOT NULL,
+    next_value    BIGINT      NOT NULL,
+    PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO account_number_sequence (sequence_name, next_value) VALUES ('account', 100000000);
@@ -0,0 +1,31 @@
+-- Daily deposit and withdrawal totals per account, read by the limit checks instead of the transaction log.
+-- The table is not part of the V1 baseline, so databases baselined at V1 receive it here.
+CREATE TABLE IF NOT EXISTS transaction_bucket
+(
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    created_date   DATETIME(6),
+    updated_date   DATETIME(6),
+    created_by     VARCHAR(255),
+    updated_by     VARCHAR(255),
+    is_active      BIT            NOT NULL,
+    version        BIGINT,
+    bucket_date    DATE           NOT NULL,
+    deposit_total  DECIMAL(19, 4) NOT NULL,
+    withdraw_total DECIMAL(19, 4) NOT NULL,
+    account_id     BIGINT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_transaction_bucket_account_date UNIQUE (account_id, bucket_date),
+    CONSTRAINT fk_transaction_bucket_account FOREIGN KEY (account_id) REFERENCES account (id)
+);
+
+-- Fill the buckets of the limit windows from the existing log, so the limits keep counting what was booked before.
+INSERT INTO transaction_bucket (created_date, created_by, is_active, version, bucket_date, deposit_total, withdraw_total, account_id)
+SELECT CURRENT_TIMESTAMP, 'SYSTEM', TRUE, 0, CAST(t.transaction_date AS DATE),
+       COALESCE(SUM(CASE WHEN t.transaction_amount > 0 THEN t.transaction_amount END), 0),
+       COALESCE(SUM(CASE WHEN t.transaction_amount < 0 THEN -t.transaction_amount END), 0),
+       t.account_id
+FROM transaction t
+WHERE t.transaction_date >= CURRENT_DATE - INTERVAL '31' DAY
+  AND NOT EXISTS (SELECT 1 FROM transaction_bucket b
+                  WHERE b.account_id = t.account_id AND b.bucket_date = CAST(t.transaction_date AS DATE))
+GROUP BY t.account_id, CAST(t.transaction_date AS DATE);
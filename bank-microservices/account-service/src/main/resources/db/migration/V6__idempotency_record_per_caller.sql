@@ -0,0 +1,9 @@
+-- Idempotency keys are chosen by the client, so they are only unique per caller.
+-- Records written before are assigned to the user that created them.
+ALTER TABLE idempotency_record ADD COLUMN username VARCHAR(255) DEFAULT 'SYSTEM' NOT NULL;
+
+UPDATE idempotency_record SET username = created_by WHERE created_by IS NOT NULL;
+
+CREATE UNIQUE INDEX ux_idempotency_record_username_key ON idempotency_record (username, idempotency_key);
+
+ALTER TABLE idempotency_record DROP CONSTRAINT ux_idempotency_record_key;
@@ -0,0 +1,96 @@
+package com.microservices.accountservice.repository;
+
+import com.microservices.accountservice.enums.MemberRanking;
+import com.microservices.accountservice.model.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * Runs against the Flyway managed schema on H2 in MySQL mode, with Hibernate validating the entities against it.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:account_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class AccountRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = new Account();
+        account.setUsername("testuser");
+        account.setEmail("testuser@example.com");
+        account.setAccountNumber("123456789");
+        account.setBalance(new BigDecimal("100"));
+        account = entityManager.persistFlushFind(account);
+        entityManager.clear();
+    }
+
+    private Account reload() {
+        entityManager.clear();
+        return entityManager.find(Account.class, account.getId());
+    }
+
+    @Test
+    void testWithdrawFromBalance_CoveredByBalance() {
+        int updated = accountRepository.withdrawFromBalance(account.getId(), new BigDecimal("60"), LocalDateTime.now());
+
+        Account reloaded = reload();
+        assertEquals(1, updated);
+        assertEquals(0, new BigDecimal("40").compareTo(reloaded.getBalance()));
+        assertEquals(account.getVersion() + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void testWithdrawFromBalance_InsufficientBalance() {
+        int updated = accountRepository.withdrawFromBalance(account.getId(), new BigDecimal("100.01"), LocalDateTime.now());
+
+        assertEquals(0, updated);
+        assertEquals(0, new BigDecimal("100").compareTo(reload().getBalance()));
+    }
+
+    @Test
+    void testAddToBalanceAndUpdateMemberRanking() {
+        accountRepository.addToBalance(account.getId(), new BigDecimal("6000"), LocalDateTime.now());
+        BigDecimal balance = accountRepository.findBalanceById(account.getId());
+
+        assertEquals(0, new BigDecimal("6100").compareTo(balance));
+        assertEquals(1, accountRepository.updateMemberRanking(account.getId(), MemberRanking.forBalance(balance), LocalDateTime.now()));
+        assertEquals(0, accountRepository.updateMemberRanking(account.getId(), MemberRanking.METAL, LocalDateTime.now()));
+        Account reloaded = reload();
+        assertEquals(MemberRanking.METAL, reloaded.getMemberRanking());
+        assertEquals(account.getVersion() + 2, reloaded.getVersion());
+        assertNotNull(reloaded.getUpdatedDate());
+    }
+
+    @Test
+    void testAddToBalance_LeavesNoStaleAccountLoadedBefore() {
+        Account locked = accountRepository.findByIdForUpdate(account.getId()).orElseThrow();
+
+        accountRepository.addToBalance(account.getId(), new BigDecimal("50"), LocalDateTime.now());
+
+        Account current = accountRepository.findById(account.getId()).orElseThrow();
+        assertNotSame(locked, current);
+        assertEquals(0, new BigDecimal("150").compareTo(current.getBalance()));
+        assertEquals(account.getVersion() + 1, current.getVersion());
+    }
+}
@@ -0,0 +1,59 @@
+package com.microservices.accountservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fills the V1 schema the way a database from before the migrations was filled, then upgrades it to the latest version,
+ * as happens to existing databases once FlywayConfig has baselined them at V1.
+ */
+public class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:account_upgrade_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .target(target)
+                .load();
+    }
+
+    @Test
+    void testBaselinedDatabase_ReceivesBucketsFilledFromTheLog() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // The V1 script is the schema the service had before Flyway and must not contain later tables
+        flyway("1").migrate();
+        Integer buckets = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'transaction_bucket'", Integer.class);
+        assertEquals(0, buckets);
+
+        jdbcTemplate.update("INSERT INTO account (is_active, username, email, account_number, member_ranking, balance) " +
+                "VALUES (TRUE, 'testuser', 'testuser@example.com', '123456789', 'STANDARD', 1000)");
+        Long accountId = jdbcTemplate.queryForObject("SELECT id FROM account", Long.class);
+        Timestamp yesterday = Timestamp.valueOf(LocalDateTime.now().minusDays(1).withHour(12));
+        Timestamp lastYear = Timestamp.valueOf(LocalDateTime.now().minusYears(1));
+        for (Object[] row : new Object[][]{{"100", yesterday}, {"-40", yesterday}, {"25", yesterday}, {"500", lastYear}}) {
+            jdbcTemplate.update("INSERT INTO transaction (is_active, transaction_amount, transaction_date, account_id) " +
+                    "VALUES (TRUE, ?, ?, ?)", new BigDecimal((String) row[0]), row[1], accountId);
+        }
+
+        flyway("latest").migrate();
+
+        Map<String, Object> bucket = jdbcTemplate.queryForMap("SELECT deposit_total, withdraw_total FROM transaction_bucket");
+        assertEquals(0, new BigDecimal("125").compareTo((BigDecimal) bucket.get("deposit_total")));
+        assertEquals(0, new BigDecimal("40").compareTo((BigDecimal) bucket.get("withdraw_total")));
+    }
+}
@@ -0,0 +1,107 @@
+package com.microservices.accountservice.repository;
+
+import com.microservices.accountservice.dto.TransactionHistoryDTO;
+import com.microservices.accountservice.enums.StatementFormat;
+import com.microservices.accountservice.model.Account;
+import com.microservices.accountservice.util.StatementWriter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports a statement of 1M transactions through StatementWriter in the bounded-heap-test execution of surefire,
+ * which forks a JVM with -Xmx128m. The rows alone take well over that heap once loaded, so the test only passes
+ * while the export streams them. The database lives in a file, so its rows do not count against the heap either.
+ * Seeding the rows takes most of the run time.
+ */
+@Tag("bounded-heap")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/statement_export_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=8192",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TransactionBatchWriter.class)
+public class StatementExportHeapTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int CHUNK = 10_000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionBatchWriter transactionBatchWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void deleteDatabase() throws IOException {
+        Files.deleteIfExists(Path.of("target", "statement_export_db.mv.db"));
+    }
+
+    @Test
+    void testStreamStatement_ExportsMoreRowsThanFitInTheHeap() {
+        Account account = new Account();
+        account.setUsername("testuser");
+        account.setEmail("testuser@example.com");
+        account.setAccountNumber("123456789");
+        account.setBalance(BigDecimal.ZERO);
+        Long accountId = accountRepository.save(account).getId();
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30).truncatedTo(ChronoUnit.SECONDS);
+        for (int offset = 0; offset < ROWS; offset += CHUNK) {
+            long first = offset;
+            transactionTemplate.executeWithoutResult(status -> transactionBatchWriter.insertRows(LongStream.range(first, first + CHUNK)
+                    .mapToObj(i -> new TransactionBatchWriter.Row(accountId, BigDecimal.valueOf(i % 2 == 0 ? i : -i, 2),
+                            start.plusNanos(i * 1000), "testuser"))
+                    .toList()));
+        }
+
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        StatementWriter writer = new StatementWriter(out, StatementFormat.CSV);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TransactionHistoryDTO> statement = transactionRepository.streamStatement(accountId, start, start.plusDays(1))) {
+                statement.forEach(writer::write);
+            }
+        });
+
+        assertEquals(ROWS, writer.finish());
+        assertEquals(ROWS + 1, out.lines);
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+}
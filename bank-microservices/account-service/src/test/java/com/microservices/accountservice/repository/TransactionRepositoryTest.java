@@ -0,0 +1,235 @@
+package com.microservices.accountservice.repository;
+
+import com.microservices.accountservice.dto.TransactionHistoryDTO;
+import com.microservices.accountservice.dto.TransactionWindowTotalsDTO;
+import com.microservices.accountservice.model.Account;
+import com.microservices.accountservice.model.Transaction;
+import com.microservices.accountservice.model.TransactionBucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against the Flyway managed schema on H2 in MySQL mode, with Hibernate validating the entities against it.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:account_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TransactionBatchWriter.class)
+public class TransactionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionBucketRepository transactionBucketRepository;
+
+    @Autowired
+    private TransactionBatchWriter transactionBatchWriter;
+
+    private Account account;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        account = new Account();
+        account.setUsername("testuser");
+        account.setEmail("testuser@example.com");
+        account.setAccountNumber("123456789");
+        account = entityManager.persist(account);
+        now = LocalDateTime.of(2024, 7, 31, 12, 0);
+    }
+
+    private Transaction transaction(String amount, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setTransactionAmount(new BigDecimal(amount));
+        transaction.setTransactionDate(date);
+        return entityManager.persist(transaction);
+    }
+
+    private void bucket(LocalDate day, String deposits, String withdrawals) {
+        TransactionBucket bucket = new TransactionBucket();
+        bucket.setAccount(account);
+        bucket.setBucketDate(day);
+        bucket.setDepositTotal(new BigDecimal(deposits));
+        bucket.setWithdrawTotal(new BigDecimal(withdrawals));
+        entityManager.persist(bucket);
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    void testSumWindowTotals_SplitsByDirectionAndWindow() {
+        transaction("100", now.minusHours(1));
+        transaction("-40", now.minusHours(2));
+        transaction("200", now.minusDays(3));
+        transaction("-60", now.minusDays(5));
+        transaction("300", now.minusDays(20));
+        transaction("-80", now.minusDays(25));
+        transaction("1000", now.minusDays(45));
+        transaction("500", now.plusHours(1));
+        entityManager.flush();
+
+        TransactionWindowTotalsDTO totals = transactionRepository.sumWindowTotals(account.getId(),
+                now.toLocalDate().atStartOfDay(), now.minusDays(7), now.minusDays(30), now);
+
+        assertAmount("100", totals.getDailyDepositTotal());
+        assertAmount("40", totals.getDailyWithdrawTotal());
+        assertAmount("300", totals.getWeeklyDepositTotal());
+        assertAmount("100", totals.getWeeklyWithdrawTotal());
+        assertAmount("600", totals.getMonthlyDepositTotal());
+        assertAmount("180", totals.getMonthlyWithdrawTotal());
+    }
+
+    @Test
+    void testSumWindowTotals_ReturnsZerosWithoutHistory() {
+        TransactionWindowTotalsDTO totals = transactionRepository.sumWindowTotals(account.getId(),
+                now.toLocalDate().atStartOfDay(), now.minusDays(7), now.minusDays(30), now);
+
+        assertAmount("0", totals.getDailyDepositTotal());
+        assertAmount("0", totals.getDailyWithdrawTotal());
+        assertAmount("0", totals.getMonthlyDepositTotal());
+        assertAmount("0", totals.getMonthlyWithdrawTotal());
+    }
+
+    @Test
+    void testSumBucketWindowTotals_SplitsByWindow() {
+        LocalDate today = now.toLocalDate();
+        bucket(today, "100", "40");
+        bucket(today.minusDays(7), "200", "60");
+        bucket(today.minusDays(30), "300", "80");
+        bucket(today.minusDays(31), "1000", "1000");
+        entityManager.flush();
+
+        TransactionWindowTotalsDTO totals = transactionBucketRepository.sumWindowTotals(account.getId(),
+                today, today.minusDays(7), today.minusDays(30));
+
+        assertAmount("100", totals.getDailyDepositTotal());
+        assertAmount("40", totals.getDailyWithdrawTotal());
+        assertAmount("300", totals.getWeeklyDepositTotal());
+        assertAmount("100", totals.getWeeklyWithdrawTotal());
+        assertAmount("600", totals.getMonthlyDepositTotal());
+        assertAmount("180", totals.getMonthlyWithdrawTotal());
+    }
+
+    @Test
+    void testInsertTransactions_WritesRowsReadableByTheAggregate() {
+        transactionBatchWriter.insertTransactions(account,
+                List.of(new BigDecimal("100"), new BigDecimal("-40"), new BigDecimal("25")), now.minusHours(1));
+
+        TransactionWindowTotalsDTO totals = transactionRepository.sumWindowTotals(account.getId(),
+                now.toLocalDate().atStartOfDay(), now.minusDays(7), now.minusDays(30), now);
+
+        assertAmount("125", totals.getDailyDepositTotal());
+        assertAmount("40", totals.getDailyWithdrawTotal());
+        assertEquals(3, transactionRepository.count());
+        assertEquals("SYSTEM", jdbcTemplate.queryForObject("SELECT MIN(created_by) FROM transaction", String.class));
+    }
+
+    @Test
+    void testFindHistoryPage_SeeksPastTiesNewestFirst() {
+        LocalDateTime tie = now.minusHours(2);
+        Transaction oldest = transaction("10", now.minusDays(2));
+        Transaction tieFirst = transaction("-20", tie);
+        Transaction tieSecond = transaction("30", tie);
+        Transaction newest = transaction("40", now.minusHours(1));
+        transaction("50", now.plusHours(1));
+        entityManager.flush();
+
+        List<TransactionHistoryDTO> first = transactionRepository.findHistoryPage(account.getId(), now.minusDays(30),
+                now, Long.MAX_VALUE, true, true, PageRequest.of(0, 2));
+        TransactionHistoryDTO last = first.get(1);
+        List<TransactionHistoryDTO> second = transactionRepository.findHistoryPage(account.getId(), now.minusDays(30),
+                last.getTransactionDate(), last.getId(), true, true, PageRequest.of(0, 2));
+
+        assertEquals(List.of(newest.getId(), tieSecond.getId()), first.stream().map(TransactionHistoryDTO::getId).toList());
+        assertEquals(List.of(tieFirst.getId(), oldest.getId()), second.stream().map(TransactionHistoryDTO::getId).toList());
+
+        List<TransactionHistoryDTO> withdrawals = transactionRepository.findHistoryPage(account.getId(), now.minusDays(30),
+                now, Long.MAX_VALUE, false, true, PageRequest.of(0, 10));
+        assertEquals(List.of(tieFirst.getId()), withdrawals.stream().map(TransactionHistoryDTO::getId).toList());
+        assertAmount("-20", withdrawals.get(0).getTransactionAmount());
+    }
+
+    @Test
+    void testStreamStatement_OldestFirstWithinRange() {
+        transaction("10", now.minusDays(40));
+        Transaction first = transaction("-20", now.minusDays(3));
+        Transaction second = transaction("30", now.minusDays(1));
+        transaction("40", now.plusDays(1));
+        entityManager.flush();
+
+        try (Stream<TransactionHistoryDTO> statement = transactionRepository.streamStatement(account.getId(), now.minusDays(30), now)) {
+            assertEquals(List.of(first.getId(), second.getId()), statement.map(TransactionHistoryDTO::getId).toList());
+        }
+    }
+
+    @Test
+    void testDeleteBucketsByAccountId_LetsTheAccountBeDeleted() {
+        bucket(now.toLocalDate(), "100", "40");
+        bucket(now.toLocalDate().minusDays(1), "200", "60");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(2, transactionBucketRepository.deleteByAccountId(account.getId()));
+        entityManager.remove(entityManager.find(Account.class, account.getId()));
+        entityManager.flush();
+
+        assertEquals(0, transactionBucketRepository.count());
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    @Test
+    void testLimitQueryUsesAccountDateIndex() {
+        String plan = explain("SELECT SUM(CASE WHEN transaction_amount > 0 THEN transaction_amount END) FROM transaction " +
+                "WHERE account_id = 1 AND transaction_date >= TIMESTAMP '2024-07-01 12:00:00' AND transaction_date <= TIMESTAMP '2024-07-31 12:00:00'");
+
+        assertTrue(plan.contains("ix_transaction_account_date_amount"), plan);
+    }
+
+    @Test
+    void testBucketQueryUsesAccountDateConstraint() {
+        String plan = explain("SELECT SUM(deposit_total) FROM transaction_bucket " +
+                "WHERE account_id = 1 AND bucket_date >= DATE '2024-07-01' AND bucket_date <= DATE '2024-07-31'");
+
+        assertTrue(plan.contains("ux_transaction_bucket_account_date"), plan);
+    }
+
+    @Test
+    void testAccountLookupsUseUniqueIndexes() {
+        String byNumber = explain("SELECT * FROM account WHERE account_number = '123456789'");
+        String byUsername = explain("SELECT * FROM account WHERE username = 'testuser'");
+
+        assertTrue(byNumber.contains("ux_account_account_number"), byNumber);
+        assertTrue(byUsername.contains("ux_account_username"), byUsername);
+    }
+}
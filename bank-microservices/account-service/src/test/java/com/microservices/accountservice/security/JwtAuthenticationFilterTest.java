@@ -0,0 +1,85 @@
+package com.microservices.accountservice.security;
+
+import com.microservices.accountservice.client.UserClient;
+import com.microservices.accountservice.util.JwtTokenProvider;
+import feign.FeignException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Mock
+    private UserClient userClient;
+
+    @InjectMocks
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @BeforeEach
+    void setUp() {
+        Claims claims = Jwts.claims().setSubject("testuser");
+        claims.put("email", "testuser@example.com");
+        when(jwtTokenProvider.resolveToken(any())).thenReturn("token");
+        when(jwtTokenProvider.parseValidClaims("token")).thenReturn(claims);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private boolean authenticated() throws Exception {
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication() != null;
+    }
+
+    @Test
+    void testDoFilter_ChecksTheRegistryWhileItIsCurrent() throws Exception {
+        when(tokenRevocationRegistry.isCurrent()).thenReturn(true);
+        when(tokenRevocationRegistry.isRevoked("token")).thenReturn(true);
+
+        assertFalse(authenticated());
+        verifyNoInteractions(userClient);
+    }
+
+    @Test
+    void testDoFilter_AsksUserServiceWhileTheRegistryIsStale() throws Exception {
+        when(tokenRevocationRegistry.isCurrent()).thenReturn(false);
+
+        assertTrue(authenticated());
+        verify(userClient).getCurrentLoggedInUser();
+        verify(tokenRevocationRegistry, never()).isRevoked(any());
+    }
+
+    @Test
+    void testDoFilter_RejectsTokenUserServiceDoesNotConfirm() throws Exception {
+        when(tokenRevocationRegistry.isCurrent()).thenReturn(false);
+        when(userClient.getCurrentLoggedInUser()).thenThrow(FeignException.Unauthorized.class);
+
+        assertFalse(authenticated());
+        assertNull(request.getAttribute(JwtAuthenticationFilter.CURRENT_USER_ATTRIBUTE));
+    }
+}
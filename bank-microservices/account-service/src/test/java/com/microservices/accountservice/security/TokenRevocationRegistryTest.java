@@ -0,0 +1,104 @@
+package com.microservices.accountservice.security;
+
+import com.microservices.accountservice.client.TokenRevocationClient;
+import com.microservices.accountservice.dto.TokenRevocationDTO;
+import com.microservices.accountservice.dto.TokenRevocationFeedDTO;
+import com.microservices.accountservice.util.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationRegistryTest {
+
+    @Mock
+    private TokenRevocationClient tokenRevocationClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clock.set(System.currentTimeMillis());
+        tokenRevocationRegistry = new TokenRevocationRegistry(tokenRevocationClient, meterRegistry, Duration.ofSeconds(30), clock::get);
+    }
+
+    private static TokenRevocationDTO revocation(String token, LocalDateTime expiresAt) {
+        return new TokenRevocationDTO(JwtTokenProvider.hashToken(token), expiresAt);
+    }
+
+    @Test
+    void testPoll_FollowsTheFeedFromTheLastVersion() {
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        when(tokenRevocationClient.getRevocations(0, 1000))
+                .thenReturn(new TokenRevocationFeedDTO(1000, true, List.of(revocation("first-token", later))));
+        when(tokenRevocationClient.getRevocations(1000, 1000))
+                .thenReturn(new TokenRevocationFeedDTO(1002, false, List.of(revocation("second-token", later))));
+        when(tokenRevocationClient.getRevocations(1002, 1000))
+                .thenReturn(new TokenRevocationFeedDTO(1002, false, List.of()));
+
+        tokenRevocationRegistry.poll();
+        tokenRevocationRegistry.poll();
+
+        assertTrue(tokenRevocationRegistry.isRevoked("first-token"));
+        assertTrue(tokenRevocationRegistry.isRevoked("second-token"));
+        assertFalse(tokenRevocationRegistry.isRevoked("other-token"));
+        verify(tokenRevocationClient, times(1)).getRevocations(0, 1000);
+        verify(tokenRevocationClient, times(1)).getRevocations(1002, 1000);
+    }
+
+    @Test
+    void testPoll_RetriesFromTheSameVersionAfterAFailure() {
+        when(tokenRevocationClient.getRevocations(0, 1000))
+                .thenThrow(new IllegalStateException("user-service is down"))
+                .thenReturn(new TokenRevocationFeedDTO(3, false,
+                        List.of(revocation("revoked-token", LocalDateTime.now().plusHours(1)),
+                                revocation("expired-token", LocalDateTime.now().minusSeconds(1)))));
+
+        tokenRevocationRegistry.poll();
+        assertFalse(tokenRevocationRegistry.isRevoked("revoked-token"));
+        tokenRevocationRegistry.poll();
+
+        assertTrue(tokenRevocationRegistry.isRevoked("revoked-token"));
+        assertFalse(tokenRevocationRegistry.isRevoked("expired-token"));
+        assertEquals(1, meterRegistry.get("token.revocation.poll.failures").counter().count());
+        assertEquals(1, meterRegistry.get("token.revocation.registry.size").gauge().value());
+    }
+
+    @Test
+    void testPoll_StartsOverOnceNoLongerCurrent() {
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        when(tokenRevocationClient.getRevocations(0, 1000))
+                .thenReturn(new TokenRevocationFeedDTO(5, false, List.of(revocation("first-token", later))));
+        when(tokenRevocationClient.getRevocations(5, 1000))
+                .thenThrow(new IllegalStateException("user-service is down"));
+        assertFalse(tokenRevocationRegistry.isCurrent());
+
+        tokenRevocationRegistry.poll();
+        assertTrue(tokenRevocationRegistry.isCurrent());
+        clock.addAndGet(20_000);
+        tokenRevocationRegistry.poll();
+        assertTrue(tokenRevocationRegistry.isCurrent());
+        clock.addAndGet(20_000);
+        assertFalse(tokenRevocationRegistry.isCurrent());
+
+        // Revocations committed during the outage may have left the overlap the feed sends again
+        tokenRevocationRegistry.poll();
+
+        verify(tokenRevocationClient, times(2)).getRevocations(0, 1000);
+        assertTrue(tokenRevocationRegistry.isCurrent());
+        assertTrue(tokenRevocationRegistry.isRevoked("first-token"));
+    }
+}
@@ -8,6 +8,9 @@ import com.microservices.accountservice.model.Account;
 import com.microservices.accountservice.model.Limits;
 import com.microservices.accountservice.repository.AccountRepository;
 import com.microservices.accountservice.repository.LimitsRepository;
+import com.microservices.accountservice.repository.TransactionBucketRepository;
+import com.microservices.accountservice.security.JwtAuthenticationFilter;
+import com.microservices.accountservice.util.AccountNumberGenerator;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +18,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.Optional;
 
@@ -34,9 +40,21 @@ public class AccountServiceTest {
     @Mock
     private LimitsRepository limitsRepository;
 
+    @Mock
+    private TransactionBucketRepository transactionBucketRepository;
+
     @Mock
     private UserClient userClient;
 
+    @Mock
+    private LimitsCache limitsCache;
+
+    @Mock
+    private AccountSnapshotCache accountSnapshotCache;
+
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -53,6 +71,7 @@ public class AccountServiceTest {
     void testCreateAccount_Success() throws AccountAlreadyExistsException {
         when(userClient.getCurrentLoggedInUser()).thenReturn(mockCurrentUser);
         when(accountRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+        when(accountNumberGenerator.next()).thenReturn("1000000008");
         when(accountRepository.save(any(Account.class))).thenReturn(new Account());
         when(accountMapper.toEntity(any(AccountCreateDTO.class))).thenReturn(new Account());
         when(accountMapper.toAccountReadOnlyDTO(any(Account.class))).thenReturn(new AccountReadOnlyDTO());
@@ -62,6 +81,7 @@ public class AccountServiceTest {
         assertNotNull(result);
         verify(accountRepository, times(1)).save(any(Account.class));
         verify(limitsRepository, times(1)).save(any(Limits.class));
+        verify(accountRepository, never()).existsByAccountNumber(any());
     }
 
     @Test
@@ -121,6 +141,8 @@ public class AccountServiceTest {
         assertNotNull(result);
         assertEquals("User deleted successfully", result.getMessage());
         verify(accountRepository, times(1)).delete(any(Account.class));
+        verify(limitsCache, times(1)).evict(any());
+        verify(accountSnapshotCache, times(1)).evict(any());
     }
 
     void deleteAccount_WhenAccountDoesNotExist_ThrowsEntityNotFoundException() {
@@ -175,4 +197,20 @@ public class AccountServiceTest {
 
         assertThrows(EntityNotFoundException.class, () -> accountService.findAccountId());
     }
+
+    @Test
+    void testFindAccountId_UsesCurrentUserFromTokenClaims() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(JwtAuthenticationFilter.CURRENT_USER_ATTRIBUTE, mockCurrentUser);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            when(accountRepository.findByUsername("testuser")).thenReturn(Optional.of(new Account()));
+            when(accountMapper.toAccountFindAccountIdDTO(any(Account.class))).thenReturn(new AccountFindAccountIdDTO());
+
+            assertTrue(accountService.findAccountId().isPresent());
+            verifyNoInteractions(userClient);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
 }
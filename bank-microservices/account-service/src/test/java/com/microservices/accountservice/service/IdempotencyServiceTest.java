@@ -0,0 +1,138 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.exception.IdempotencyKeyConflictException;
+import com.microservices.accountservice.model.IdempotencyRecord;
+import com.microservices.accountservice.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger bookings = new AtomicInteger();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, transactionManager, meterRegistry,
+                100, Duration.ofMinutes(10), Duration.ofHours(24));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testExecute_ReplaysFromCacheWithoutBookingAgain() {
+        when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("SYSTEM", "key-1")).thenReturn(Optional.empty());
+
+        HttpStatus first = idempotencyService.execute("key-1", "add", bookings::incrementAndGet, "123456789", new BigDecimal("100"));
+        HttpStatus second = idempotencyService.execute("key-1", "add", bookings::incrementAndGet, "123456789", new BigDecimal("100.00"));
+
+        assertEquals(HttpStatus.OK, first);
+        assertEquals(HttpStatus.OK, second);
+        assertEquals(1, bookings.get());
+        verify(idempotencyRecordRepository, times(1)).findByUsernameAndIdempotencyKey("SYSTEM", "key-1");
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+        assertEquals(1, meterRegistry.get("transaction.idempotency.replays").counter().count());
+    }
+
+    @Test
+    void testExecute_ReplaysStoredRecord() {
+        when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("SYSTEM", "key-1")).thenReturn(Optional.empty());
+        idempotencyService.execute("key-1", "withdraw", bookings::incrementAndGet, "123456789", new BigDecimal("40"));
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(captor.capture());
+
+        // Another instance, with an empty cache, sees the stored record
+        IdempotencyService otherInstance = new IdempotencyService(idempotencyRecordRepository, transactionManager,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofHours(24));
+        when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("SYSTEM", "key-1")).thenReturn(Optional.of(captor.getValue()));
+
+        assertEquals(HttpStatus.OK, otherInstance.execute("key-1", "withdraw", bookings::incrementAndGet, "123456789", new BigDecimal("40")));
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void testExecute_KeyReusedForDifferentRequest() {
+        when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("SYSTEM", "key-1")).thenReturn(Optional.empty());
+        idempotencyService.execute("key-1", "add", bookings::incrementAndGet, "123456789", new BigDecimal("100"));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute("key-1", "add", bookings::incrementAndGet, "123456789", new BigDecimal("200")));
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void testExecute_FailedBookingIsNotStored() {
+        when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("SYSTEM", "key-1")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute("key-1", "withdraw", () -> {
+            throw new IllegalArgumentException("Insufficient balance");
+        }, "123456789", new BigDecimal("40")));
+
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testExecute_ConcurrentRequestWithSameKeyCommittedFirst() {
+        IdempotencyRecord winner = new IdempotencyRecord();
+        when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("SYSTEM", "key-1")).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord saved = invocation.getArgument(0);
+            winner.setRequestHash(saved.getRequestHash());
+            winner.setResponseStatus(saved.getResponseStatus());
+            when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("SYSTEM", "key-1")).thenReturn(Optional.of(winner));
+            throw new DataIntegrityViolationException("ux_idempotency_record_username_key");
+        });
+
+        assertEquals(HttpStatus.OK, idempotencyService.execute("key-1", "add", bookings::incrementAndGet, "123456789", new BigDecimal("100")));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testExecute_SameKeyOfAnotherUserIsBookedSeparately() {
+        when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("SYSTEM", "key-1")).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.findByUsernameAndIdempotencyKey("janedoe", "key-1")).thenReturn(Optional.empty());
+        idempotencyService.execute("key-1", "add", bookings::incrementAndGet, "123456789", new BigDecimal("100"));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("janedoe", null));
+
+        assertEquals(HttpStatus.OK, idempotencyService.execute("key-1", "add", bookings::incrementAndGet, "987654321", new BigDecimal("200")));
+        assertEquals(2, bookings.get());
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository, times(2)).saveAndFlush(captor.capture());
+        assertEquals("janedoe", captor.getValue().getUsername());
+    }
+}
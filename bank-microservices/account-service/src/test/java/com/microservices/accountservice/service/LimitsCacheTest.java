@@ -0,0 +1,74 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.model.Account;
+import com.microservices.accountservice.model.Limits;
+import com.microservices.accountservice.repository.LimitsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LimitsCacheTest {
+
+    @Mock
+    private LimitsRepository limitsRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LimitsCache limitsCache;
+    private Limits limits;
+
+    @BeforeEach
+    void setUp() {
+        limitsCache = new LimitsCache(limitsRepository, meterRegistry, 100, Duration.ofMinutes(10));
+        limits = new Limits();
+        limits.setId(7L);
+        limits.setAccount(new Account());
+        limits.setTransactionLimit(new BigDecimal("300"));
+    }
+
+    @Test
+    void testFindByAccountId_LoadsOnceAndCachesDetachedCopy() {
+        when(limitsRepository.findByAccountId(1L)).thenReturn(Optional.of(limits));
+
+        Limits first = limitsCache.findByAccountId(1L).orElseThrow();
+        Limits second = limitsCache.findByAccountId(1L).orElseThrow();
+
+        assertSame(first, second);
+        assertNull(first.getAccount());
+        assertEquals(7L, first.getId());
+        assertEquals(0, new BigDecimal("300").compareTo(first.getTransactionLimit()));
+        verify(limitsRepository, times(1)).findByAccountId(1L);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "limits").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testEvict_ReloadsLimits() {
+        when(limitsRepository.findByAccountId(1L)).thenReturn(Optional.of(limits));
+
+        limitsCache.findByAccountId(1L);
+        limitsCache.evict(1L);
+        limitsCache.findByAccountId(1L);
+
+        verify(limitsRepository, times(2)).findByAccountId(1L);
+    }
+
+    @Test
+    void testFindByAccountId_DoesNotCacheMissingLimits() {
+        when(limitsRepository.findByAccountId(1L)).thenReturn(Optional.empty());
+
+        assertTrue(limitsCache.findByAccountId(1L).isEmpty());
+        assertTrue(limitsCache.findByAccountId(1L).isEmpty());
+
+        verify(limitsRepository, times(2)).findByAccountId(1L);
+    }
+}
@@ -0,0 +1,74 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.dto.TransactionBatchItemResultDTO;
+import com.microservices.accountservice.dto.TransactionBatchResultDTO;
+import com.microservices.accountservice.dto.TransactionDTO;
+import com.microservices.accountservice.util.AccountLaneExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionBatchServiceTest {
+
+    @Mock
+    private ITransactionService transactionService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccountLaneExecutor accountLaneExecutor = new AccountLaneExecutor(4, 16);
+    private TransactionBatchService transactionBatchService;
+
+    @BeforeEach
+    void setUp() {
+        transactionBatchService = new TransactionBatchService(transactionService, accountLaneExecutor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountLaneExecutor.shutdown();
+    }
+
+    @Test
+    void testProcessBatch_ReportsTheReasonOfABusinessRejection() {
+        when(transactionService.processBatch(eq("123456789"), anyList()))
+                .thenThrow(new EntityNotFoundException("Account not found"));
+
+        TransactionBatchResultDTO result = transactionBatchService.processBatch(
+                List.of(new TransactionDTO("123456789", BigDecimal.TEN)));
+
+        assertEquals(1, result.getRejected());
+        assertEquals("Account not found", result.getResults().get(0).getMessage());
+    }
+
+    @Test
+    void testProcessBatch_HidesTheMessageOfADatabaseFailure() {
+        when(transactionService.processBatch(eq("123456789"), anyList()))
+                .thenReturn(List.of(TransactionBatchItemResultDTO.accepted(new TransactionDTO("123456789", BigDecimal.TEN))));
+        when(transactionService.processBatch(eq("987654321"), anyList()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement [Referential integrity " +
+                        "constraint violation: \"fk_transaction_account\"] [insert into transaction ...]"));
+
+        TransactionBatchResultDTO result = transactionBatchService.processBatch(List.of(
+                new TransactionDTO("123456789", BigDecimal.TEN), new TransactionDTO("987654321", BigDecimal.ONE)));
+
+        assertEquals(1, result.getAccepted());
+        TransactionBatchItemResultDTO rejected = result.getResults().get(1);
+        assertFalse(rejected.isAccepted());
+        assertEquals(1, rejected.getIndex());
+        assertEquals("Transaction could not be booked", rejected.getMessage());
+    }
+}
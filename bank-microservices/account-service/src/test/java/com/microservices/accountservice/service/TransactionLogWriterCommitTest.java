@@ -0,0 +1,90 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.model.Account;
+import com.microservices.accountservice.repository.AccountRepository;
+import com.microservices.accountservice.repository.TransactionBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enqueues transaction log rows from bookings that commit for real, with the flusher not running,
+ * so rows beyond the queue capacity take the synchronous fallback after the commit.
+ * The pool hands out connections with auto-commit off, so nothing written on the connection of the booking after its
+ * commit is ever committed.
+ * Uses its own in-memory database, so the committed rows do not leak into other tests.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transaction_log_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.hikari.auto-commit=false",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TransactionBatchWriter.class)
+public class TransactionLogWriterCommitTest {
+
+    @Autowired
+    private TransactionBatchWriter transactionBatchWriter;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of("transaction", "account")) {
+                jdbcTemplate.update("DELETE FROM " + table);
+            }
+        });
+    }
+
+    @Test
+    void testEnqueue_CommitsTheSynchronousFallbackWhenTheQueueIsFull() {
+        TransactionLogWriter transactionLogWriter = new TransactionLogWriter(transactionBatchWriter, transactionManager,
+                new SimpleMeterRegistry(), true, 1, 50, 200);
+        LocalDateTime now = LocalDateTime.now();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = new Account();
+            account.setUsername("testuser");
+            account.setEmail("testuser@example.com");
+            account.setAccountNumber("123456789");
+            account.setBalance(BigDecimal.ZERO);
+            account = accountRepository.save(account);
+            accountRepository.flush();
+
+            transactionLogWriter.enqueue(account.getId(), BigDecimal.ONE, now);
+            transactionLogWriter.enqueue(account.getId(), BigDecimal.TEN, now);
+        });
+
+        List<BigDecimal> amounts = jdbcTemplate.queryForList("SELECT transaction_amount FROM transaction", BigDecimal.class);
+        assertEquals(1, amounts.size());
+        assertEquals(0, BigDecimal.TEN.compareTo(amounts.get(0)));
+    }
+}
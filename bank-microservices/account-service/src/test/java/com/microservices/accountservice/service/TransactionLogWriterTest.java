@@ -0,0 +1,96 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.repository.TransactionBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionLogWriterTest {
+
+    @Mock
+    private TransactionBatchWriter transactionBatchWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransactionLogWriter transactionLogWriter;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transactionLogWriter.shutdown();
+    }
+
+    @Test
+    void testEnqueue_FlushesQueuedRowsInOneBatch() throws Exception {
+        CountDownLatch flushed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushed.countDown();
+            return null;
+        }).when(transactionBatchWriter).insertRows(anyList());
+        transactionLogWriter = new TransactionLogWriter(transactionBatchWriter, transactionManager, meterRegistry, true, 100, 50, 200);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 10; i++) {
+            transactionLogWriter.enqueue(1L, BigDecimal.valueOf(i), now);
+        }
+        transactionLogWriter.start();
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        verify(transactionBatchWriter).insertRows(argThat(rows -> rows.size() == 10));
+        transactionLogWriter.shutdown();
+        assertEquals(10, meterRegistry.get("transaction.log.rows").tag("result", "flushed").counter().count());
+    }
+
+    @Test
+    void testEnqueue_WritesSynchronouslyWhenTheQueueIsFull() {
+        transactionLogWriter = new TransactionLogWriter(transactionBatchWriter, transactionManager, meterRegistry, true, 1, 50, 200);
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionLogWriter.enqueue(1L, BigDecimal.ONE, now);
+        transactionLogWriter.enqueue(1L, BigDecimal.TEN, now);
+
+        verify(transactionBatchWriter).insertRows(List.of(new TransactionBatchWriter.Row(1L, BigDecimal.TEN, now, "SYSTEM")));
+        assertEquals(1, meterRegistry.get("transaction.log.rows").tag("result", "synchronous").counter().count());
+    }
+
+    @Test
+    void testWrite_FallsBackToSingleRowsWhenTheBatchFails() throws Exception {
+        CountDownLatch done = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            done.countDown();
+            if (rows.size() > 1 || ((TransactionBatchWriter.Row) rows.get(0)).accountId() == 2L) {
+                throw new IllegalStateException("fk_transaction_account");
+            }
+            return null;
+        }).when(transactionBatchWriter).insertRows(anyList());
+        transactionLogWriter = new TransactionLogWriter(transactionBatchWriter, transactionManager, meterRegistry, true, 100, 50, 200);
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionLogWriter.enqueue(1L, BigDecimal.ONE, now);
+        transactionLogWriter.enqueue(2L, BigDecimal.TEN, now);
+        transactionLogWriter.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        transactionLogWriter.shutdown();
+        assertEquals(1, meterRegistry.get("transaction.log.rows").tag("result", "flushed").counter().count());
+        assertEquals(1, meterRegistry.get("transaction.log.rows").tag("result", "failed").counter().count());
+    }
+}
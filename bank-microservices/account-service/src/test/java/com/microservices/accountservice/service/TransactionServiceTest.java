@@ -0,0 +1,332 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.dto.AccountSnapshotDTO;
+import com.microservices.accountservice.dto.TransactionBatchItemResultDTO;
+import com.microservices.accountservice.dto.TransactionDTO;
+import com.microservices.accountservice.dto.TransactionHistoryDTO;
+import com.microservices.accountservice.dto.TransactionHistoryPageDTO;
+import com.microservices.accountservice.dto.TransactionWindowTotalsDTO;
+import com.microservices.accountservice.enums.MemberRanking;
+import com.microservices.accountservice.exception.LimitExceededException;
+import com.microservices.accountservice.model.Account;
+import com.microservices.accountservice.model.Limits;
+import com.microservices.accountservice.model.Transaction;
+import com.microservices.accountservice.repository.AccountRepository;
+import com.microservices.accountservice.repository.TransactionBatchWriter;
+import com.microservices.accountservice.repository.TransactionBucketRepository;
+import com.microservices.accountservice.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountSnapshotCache accountSnapshotCache;
+
+    @Mock
+    private LimitsCache limitsCache;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionBucketRepository transactionBucketRepository;
+
+    @Mock
+    private TransactionBatchWriter transactionBatchWriter;
+
+    @Mock
+    private TransactionLogWriter transactionLogWriter;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    private Account account;
+    private Limits limits;
+
+    @BeforeEach
+    void setUp() {
+        account = new Account();
+        account.setId(1L);
+        account.setAccountNumber("123456789");
+        account.setBalance(new BigDecimal("1000"));
+
+        MemberRanking ranking = MemberRanking.STANDARD;
+        limits = new Limits();
+        limits.setAccount(account);
+        limits.setTransactionLimit(ranking.getTransactionLimit());
+        limits.setDailyDepositLimit(ranking.getDailyDepositLimit());
+        limits.setDailyWithdrawLimit(ranking.getDailyWithdrawLimit());
+        limits.setWeeklyDepositLimit(ranking.getWeeklyDepositLimit());
+        limits.setWeeklyWithdrawLimit(ranking.getWeeklyWithdrawLimit());
+        limits.setMonthlyDepositLimit(ranking.getMonthlyDepositLimit());
+        limits.setMonthlyWithdrawLimit(ranking.getMonthlyWithdrawLimit());
+    }
+
+    private void stubAccountLookup() {
+        when(accountSnapshotCache.findByAccountNumber("123456789"))
+                .thenReturn(Optional.of(new AccountSnapshotDTO(1L, "testuser", MemberRanking.STANDARD)));
+        when(accountRepository.getReferenceById(1L)).thenReturn(account);
+    }
+
+    private TransactionWindowTotalsDTO totals(String daily, String weekly, String monthly) {
+        TransactionWindowTotalsDTO totals = new TransactionWindowTotalsDTO();
+        totals.setDailyDepositTotal(new BigDecimal(daily));
+        totals.setDailyWithdrawTotal(new BigDecimal(daily));
+        totals.setWeeklyDepositTotal(new BigDecimal(weekly));
+        totals.setWeeklyWithdrawTotal(new BigDecimal(weekly));
+        totals.setMonthlyDepositTotal(new BigDecimal(monthly));
+        totals.setMonthlyWithdrawTotal(new BigDecimal(monthly));
+        return totals;
+    }
+
+    @Test
+    void testValidateTransactionLimits_WithinLimits() {
+        LocalDateTime now = LocalDateTime.now();
+        when(transactionBucketRepository.sumWindowTotals(1L, now.toLocalDate(), now.minusDays(7).toLocalDate(), now.minusDays(30).toLocalDate()))
+                .thenReturn(totals("200", "200", "200"));
+
+        assertDoesNotThrow(() -> transactionService.validateTransactionLimits(account, new BigDecimal("100"), limits, now, true));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void testValidateTransactionLimits_DailyLimitExceeded() {
+        LocalDateTime now = LocalDateTime.now();
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("450", "450", "450"));
+
+        LimitExceededException ex = assertThrows(LimitExceededException.class,
+                () -> transactionService.validateTransactionLimits(account, new BigDecimal("100"), limits, now, true));
+        assertEquals("Daily limit exceeded", ex.getMessage());
+    }
+
+    @Test
+    void testValidateTransactionLimits_WeeklyLimitExceeded() {
+        LocalDateTime now = LocalDateTime.now();
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("0", "2450", "2450"));
+
+        LimitExceededException ex = assertThrows(LimitExceededException.class,
+                () -> transactionService.validateTransactionLimits(account, new BigDecimal("100"), limits, now, false));
+        assertEquals("Weekly limit exceeded", ex.getMessage());
+    }
+
+    @Test
+    void testValidateTransactionLimits_UsesTransactionLogWhenBucketsDisabled() {
+        ReflectionTestUtils.setField(transactionService, "useBuckets", false);
+        LocalDateTime now = LocalDateTime.now();
+        when(transactionRepository.sumWindowTotals(1L, now.toLocalDate().atStartOfDay(), now.minusDays(7), now.minusDays(30), now))
+                .thenReturn(totals("0", "0", "9950"));
+
+        LimitExceededException ex = assertThrows(LimitExceededException.class,
+                () -> transactionService.validateTransactionLimits(account, new BigDecimal("100"), limits, now, true));
+        assertEquals("Monthly limit exceeded", ex.getMessage());
+        verify(transactionBucketRepository, never()).sumWindowTotals(any(), any(), any(), any());
+    }
+
+    @Test
+    void testAddMoney_UpdatesBucketOfTheDay() {
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("100", "100", "100"));
+        stubAccountLookup();
+        when(limitsCache.findByAccountId(1L)).thenReturn(Optional.of(limits));
+        when(accountRepository.addToBalance(eq(1L), eq(new BigDecimal("50")), any(LocalDateTime.class))).thenReturn(1);
+        when(accountRepository.findBalanceById(1L)).thenReturn(new BigDecimal("1050"));
+
+        transactionService.addMoney(new TransactionDTO("123456789", new BigDecimal("50")));
+
+        verify(accountRepository, never()).findByAccountNumber(any());
+        verify(accountRepository, never()).save(any(Account.class));
+        verify(accountRepository).updateMemberRanking(eq(1L), eq(MemberRanking.STANDARD), any(LocalDateTime.class));
+        verify(accountSnapshotCache, never()).evict(any());
+        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(transactionBucketRepository, times(1)).addToBucket(eq(1L), eq(LocalDate.now()), eq(new BigDecimal("50")),
+                eq(BigDecimal.ZERO), any(LocalDateTime.class), eq("SYSTEM"));
+    }
+
+    @Test
+    void testWithdrawMoney_AddsToBucketOfTheDay() {
+        stubAccountLookup();
+        when(limitsCache.findByAccountId(1L)).thenReturn(Optional.of(limits));
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("0", "0", "0"));
+        when(accountRepository.withdrawFromBalance(eq(1L), eq(new BigDecimal("40")), any(LocalDateTime.class))).thenReturn(1);
+        when(accountRepository.findBalanceById(1L)).thenReturn(new BigDecimal("960"));
+
+        transactionService.withdrawMoney(new TransactionDTO("123456789", new BigDecimal("40")));
+
+        verify(transactionBucketRepository).addToBucket(eq(1L), eq(LocalDate.now()), eq(BigDecimal.ZERO),
+                eq(new BigDecimal("40")), any(LocalDateTime.class), eq("SYSTEM"));
+    }
+
+    @Test
+    void testAddMoney_EvictsCachedAccountWhenRankingChanges() {
+        stubAccountLookup();
+        when(limitsCache.findByAccountId(1L)).thenReturn(Optional.of(limits));
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("0", "0", "0"));
+        when(accountRepository.addToBalance(eq(1L), eq(new BigDecimal("50")), any(LocalDateTime.class))).thenReturn(1);
+        when(accountRepository.findBalanceById(1L)).thenReturn(new BigDecimal("1050"));
+        when(accountRepository.updateMemberRanking(eq(1L), any(MemberRanking.class), any(LocalDateTime.class))).thenReturn(1);
+
+        transactionService.addMoney(new TransactionDTO("123456789", new BigDecimal("50")));
+
+        verify(accountSnapshotCache).evict("123456789");
+    }
+
+    @Test
+    void testAddMoney_AccountDeletedSinceCached() {
+        stubAccountLookup();
+        when(limitsCache.findByAccountId(1L)).thenReturn(Optional.of(limits));
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("0", "0", "0"));
+        when(accountRepository.addToBalance(eq(1L), eq(new BigDecimal("50")), any(LocalDateTime.class))).thenReturn(0);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.addMoney(new TransactionDTO("123456789", new BigDecimal("50"))));
+        assertEquals("Account not found", ex.getMessage());
+        verify(accountSnapshotCache).evict("123456789");
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testWithdrawMoney_InsufficientBalance() {
+        stubAccountLookup();
+        when(limitsCache.findByAccountId(1L)).thenReturn(Optional.of(limits));
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("0", "0", "0"));
+        when(accountRepository.withdrawFromBalance(eq(1L), eq(new BigDecimal("40")), any(LocalDateTime.class))).thenReturn(0);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdrawMoney(new TransactionDTO("123456789", new BigDecimal("40"))));
+        assertEquals("Insufficient balance", ex.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(transactionBucketRepository, never()).addToBucket(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testTransfer_FailsWhenTheCreditFindsNoAccount() {
+        Account toAccount = new Account();
+        toAccount.setId(2L);
+        when(accountRepository.findIdByAccountNumber("123456789")).thenReturn(Optional.of(1L));
+        when(accountRepository.findIdByAccountNumber("987654321")).thenReturn(Optional.of(2L));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toAccount));
+        when(limitsCache.findByAccountId(anyLong())).thenReturn(Optional.of(limits));
+        when(transactionBucketRepository.sumWindowTotals(anyLong(), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("0", "0", "0"));
+        when(accountRepository.withdrawFromBalance(eq(1L), eq(new BigDecimal("50")), any(LocalDateTime.class))).thenReturn(1);
+        when(accountRepository.addToBalance(eq(2L), eq(new BigDecimal("50")), any(LocalDateTime.class))).thenReturn(0);
+
+        // The exception rolls back the debit of the transactional transfer
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.transfer("123456789", "987654321", new BigDecimal("50")));
+        assertEquals("Account not found", ex.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(transactionBucketRepository, never()).addToBucket(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testProcessBatch_ChecksItemsAgainstRunningTotals() {
+        stubAccountLookup();
+        when(limitsCache.findByAccountId(1L)).thenReturn(Optional.of(limits));
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("0", "0", "0"));
+        when(accountRepository.findBalanceById(1L)).thenReturn(new BigDecimal("100"), new BigDecimal("550"));
+        when(accountRepository.addToBalance(eq(1L), eq(new BigDecimal("150")), any(LocalDateTime.class))).thenReturn(1);
+
+        List<TransactionBatchItemResultDTO> results = transactionService.processBatch("123456789", List.of(
+                new TransactionDTO("123456789", new BigDecimal("300")),
+                new TransactionDTO("123456789", new BigDecimal("300")),
+                new TransactionDTO("123456789", new BigDecimal("-150")),
+                new TransactionDTO("123456789", new BigDecimal("-300")),
+                new TransactionDTO("123456789", BigDecimal.ZERO)));
+
+        assertTrue(results.get(0).isAccepted());
+        assertEquals("Daily limit exceeded", results.get(1).getMessage());
+        assertTrue(results.get(2).isAccepted());
+        assertEquals("Insufficient balance", results.get(3).getMessage());
+        assertEquals("Amount must not be zero", results.get(4).getMessage());
+        verify(accountRepository).addToBalance(eq(1L), eq(new BigDecimal("150")), any(LocalDateTime.class));
+        verify(transactionBatchWriter).insertTransactions(eq(account), eq(List.of(new BigDecimal("300"), new BigDecimal("-150"))), any(LocalDateTime.class));
+        verify(transactionBucketRepository, times(1)).addToBucket(eq(1L), any(LocalDate.class), eq(new BigDecimal("300")),
+                eq(new BigDecimal("150")), any(LocalDateTime.class), eq("SYSTEM"));
+    }
+
+    @Test
+    void testProcessBatch_BalanceSpentConcurrentlyIsInsufficientBalance() {
+        stubAccountLookup();
+        when(limitsCache.findByAccountId(1L)).thenReturn(Optional.of(limits));
+        when(transactionBucketRepository.sumWindowTotals(eq(1L), any(LocalDate.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(totals("0", "0", "0"));
+        when(accountRepository.findBalanceById(1L)).thenReturn(new BigDecimal("100"));
+        when(accountRepository.withdrawFromBalance(eq(1L), eq(new BigDecimal("80")), any(LocalDateTime.class))).thenReturn(0);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> transactionService.processBatch("123456789",
+                List.of(new TransactionDTO("123456789", new BigDecimal("-80")))));
+
+        assertEquals("Insufficient balance", ex.getMessage());
+        verifyNoInteractions(transactionBatchWriter);
+    }
+
+    @Test
+    void testGetHistory_FollowsCursorAtTheEndOfTheRange() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("testuser", null));
+        when(accountRepository.findIdByUsername("testuser")).thenReturn(Optional.of(1L));
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(30);
+        when(transactionRepository.findHistoryPage(1L, from, to, Long.MAX_VALUE, true, true, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new TransactionHistoryDTO(3L, to, new BigDecimal("10")),
+                        new TransactionHistoryDTO(2L, to, new BigDecimal("20"))));
+        when(transactionRepository.findHistoryPage(1L, from, to, 3L, true, true, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new TransactionHistoryDTO(2L, to, new BigDecimal("20"))));
+
+        try {
+            TransactionHistoryPageDTO first = transactionService.getHistory(from, to, null, null, null, 1);
+            TransactionHistoryPageDTO second = transactionService.getHistory(from, to, null,
+                    first.getNextCursorDate(), first.getNextCursorId(), 1);
+
+            assertEquals(to, first.getNextCursorDate());
+            assertEquals(3L, first.getNextCursorId());
+            assertEquals(List.of(2L), second.getTransactions().stream().map(TransactionHistoryDTO::getId).toList());
+            assertNull(second.getNextCursorId());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testGetHistory_RejectsCursorAfterTheEndOfTheRange() {
+        LocalDateTime to = LocalDateTime.now();
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getHistory(to.minusDays(30), to, null, to.plusSeconds(1), 3L, 10));
+        assertEquals("cursorDate must not be after 'to'", ex.getMessage());
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -0,0 +1,179 @@
+package com.microservices.accountservice.service;
+
+import com.microservices.accountservice.model.Account;
+import com.microservices.accountservice.model.Limits;
+import com.microservices.accountservice.repository.AccountRepository;
+import com.microservices.accountservice.repository.LimitsRepository;
+import com.microservices.accountservice.repository.TransactionBatchWriter;
+import com.microservices.accountservice.repository.TransactionBucketRepository;
+import com.microservices.accountservice.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs crossed transfers between a few accounts and concurrent bookings into one daily bucket from many threads,
+ * with every transaction committing for real.
+ * Uses its own in-memory database, so the committed rows do not leak into other tests.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transfer_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TransactionService.class, TransactionBatchWriter.class, TransactionLogWriter.class, LimitsCache.class,
+        AccountSnapshotCache.class, SimpleMeterRegistry.class})
+public class TransferConcurrencyTest {
+
+    private static final int ACCOUNTS = 4;
+    private static final int THREADS = 12;
+    private static final int TRANSFERS_PER_THREAD = 20;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000");
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LimitsRepository limitsRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionBucketRepository transactionBucketRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Account> accounts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        BigDecimal unlimited = new BigDecimal("1000000000");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUsername("transfer-user-" + i);
+            account.setEmail("transfer-user-" + i + "@example.com");
+            account.setAccountNumber("90000000" + i);
+            account.setBalance(INITIAL_BALANCE);
+            account = accountRepository.save(account);
+            accounts.add(account);
+
+            Limits limits = new Limits(unlimited, unlimited, unlimited, unlimited, unlimited, unlimited,
+                    unlimited, unlimited, unlimited, unlimited, account);
+            limitsRepository.save(limits);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("transaction_bucket", "transaction", "limits", "account")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void testConcurrentFirstBookings_AddUpInOneBucket() throws Exception {
+        Long accountId = accounts.get(0).getId();
+        LocalDate day = LocalDate.of(2024, 7, 31);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    transactionTemplate.executeWithoutResult(status -> transactionBucketRepository.addToBucket(accountId, day,
+                            BigDecimal.ONE, new BigDecimal("2"), LocalDateTime.now(), "SYSTEM"));
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        for (Future<?> future : futures) {
+            // Fails with the exception of the upsert, e.g. a duplicate key on the first booking of the day
+            future.get();
+        }
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Map<String, Object> bucket = jdbcTemplate.queryForMap(
+                "SELECT deposit_total, withdraw_total FROM transaction_bucket WHERE account_id = ? AND bucket_date = ?", accountId, day);
+        int bookings = THREADS * TRANSFERS_PER_THREAD;
+        assertEquals(0, BigDecimal.valueOf(bookings).compareTo((BigDecimal) bucket.get("deposit_total")));
+        assertEquals(0, BigDecimal.valueOf(2L * bookings).compareTo((BigDecimal) bucket.get("withdraw_total")));
+    }
+
+    @Test
+    void testCrossedTransfers_NoDeadlocksAndNoLostBalance() throws Exception {
+        Map<String, AtomicLong> expected = new ConcurrentHashMap<>();
+        accounts.forEach(account -> expected.put(account.getAccountNumber(), new AtomicLong(INITIAL_BALANCE.longValue())));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    long amount = 1 + random.nextInt(100);
+                    String fromNumber = accounts.get(from).getAccountNumber();
+                    String toNumber = accounts.get(to).getAccountNumber();
+
+                    transactionService.transfer(fromNumber, toNumber, BigDecimal.valueOf(amount));
+
+                    expected.get(fromNumber).addAndGet(-amount);
+                    expected.get(toNumber).addAndGet(amount);
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        for (Future<?> future : futures) {
+            // Fails with the exception of the transfer, e.g. a lock timeout
+            future.get();
+        }
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accounts) {
+            BigDecimal balance = accountRepository.findBalanceById(account.getId());
+            assertEquals(0, BigDecimal.valueOf(expected.get(account.getAccountNumber()).get()).compareTo(balance),
+                    () -> "unexpected balance of " + account.getAccountNumber() + ": " + balance);
+            total = total.add(balance);
+        }
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+        assertEquals(2L * THREADS * TRANSFERS_PER_THREAD, transactionRepository.count());
+    }
+}
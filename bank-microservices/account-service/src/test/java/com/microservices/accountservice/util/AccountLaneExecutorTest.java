@@ -0,0 +1,96 @@
+package com.microservices.accountservice.util;
+
+import com.microservices.accountservice.exception.AccountBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountLaneExecutorTest {
+
+    private final AccountLaneExecutor laneExecutor = new AccountLaneExecutor(4, 16);
+
+    @AfterEach
+    void tearDown() {
+        laneExecutor.shutdown();
+    }
+
+    @Test
+    void testExecute_RunsOperationsOfOneAccountOneAtATime() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(callers.submit(() -> laneExecutor.execute("123456789", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.yield();
+                    running.decrementAndGet();
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void testExecute_RethrowsExceptionOfTheOperation() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> laneExecutor.execute("123456789", () -> {
+                    throw new IllegalArgumentException("Insufficient balance");
+                }));
+        assertEquals("Insufficient balance", ex.getMessage());
+    }
+
+    @Test
+    void testExecute_RunsNestedOperationOfTheSameLaneDirectly() {
+        String result = laneExecutor.execute("123456789",
+                () -> laneExecutor.execute("123456789", () -> Thread.currentThread().getName()));
+
+        assertTrue(result.startsWith("account-lane-"));
+    }
+
+    @Test
+    void testSubmit_RejectsWhenTheLaneIsFull() throws Exception {
+        AccountLaneExecutor smallLanes = new AccountLaneExecutor(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<Boolean> running = smallLanes.submit("123456789", () -> {
+                started.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> queued = smallLanes.submit("123456789", () -> "queued");
+
+            assertThrows(AccountBusyException.class, () -> smallLanes.submit("987654321", () -> "rejected"));
+
+            release.countDown();
+            assertTrue(smallLanes.await(running));
+            assertEquals("queued", smallLanes.await(queued));
+        } finally {
+            release.countDown();
+            smallLanes.shutdown();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.microservices.accountservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:account_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class AccountNumberGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long sequenceValue() {
+        return jdbcTemplate.queryForObject(
+                "SELECT next_value FROM account_number_sequence WHERE sequence_name = 'account'", Long.class);
+    }
+
+    @Test
+    void testNext_HandsOutConsecutiveNumbersFromReservedBlocks() {
+        AccountNumberGenerator generator = new AccountNumberGenerator(jdbcTemplate, transactionManager, 3);
+        long start = sequenceValue();
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            numbers.add(generator.next());
+        }
+
+        assertEquals(start + 9, sequenceValue());
+        assertEquals(7, new HashSet<>(numbers).size());
+        for (int i = 0; i < numbers.size(); i++) {
+            String number = numbers.get(i);
+            assertEquals(10, number.length());
+            assertEquals(String.valueOf(start + i), number.substring(0, 9));
+            assertTrue(AccountNumberGenerator.isValid(number), number);
+        }
+    }
+
+    @Test
+    void testIsValid_RejectsChangedDigits() {
+        assertTrue(AccountNumberGenerator.isValid("1000000008"));
+        assertTrue(AccountNumberGenerator.isValid("79927398713"));
+        assertFalse(AccountNumberGenerator.isValid("1000000018"));
+        assertFalse(AccountNumberGenerator.isValid("1000000009"));
+        assertFalse(AccountNumberGenerator.isValid("12345abc"));
+    }
+}
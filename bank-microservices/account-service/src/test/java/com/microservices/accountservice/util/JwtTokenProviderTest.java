@@ -0,0 +1,63 @@
+package com.microservices.accountservice.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(meterRegistry, 100, Duration.ofHours(1));
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", SECRET);
+    }
+
+    private static String token(String secret, long expiresInMillis) {
+        Date now = new Date();
+        return Jwts.builder()
+                .claim("email", "testuser@example.com")
+                .setSubject("testuser")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + expiresInMillis))
+                .signWith(SignatureAlgorithm.HS512, secret)
+                .compact();
+    }
+
+    @Test
+    void testParseValidClaims_VerifiesTokenOnce() {
+        String token = token(SECRET, 60_000);
+
+        Claims first = jwtTokenProvider.parseValidClaims(token);
+        Claims second = jwtTokenProvider.parseValidClaims(token);
+
+        assertSame(first, second);
+        assertEquals("testuser", jwtTokenProvider.extractUsername(token));
+        assertEquals("testuser@example.com", first.get("email", String.class));
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "jwt.tokens").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testValidateToken_RejectsTokenSignedWithAnotherSecret() {
+        assertFalse(jwtTokenProvider.validateToken(token("other-secret", 60_000)));
+        assertFalse(jwtTokenProvider.validateToken("not-a-token"));
+    }
+
+    @Test
+    void testValidateToken_RejectsExpiredToken() {
+        assertFalse(jwtTokenProvider.validateToken(token(SECRET, -1_000)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.microservices.accountservice.util;
+
+import com.microservices.accountservice.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticLockRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticLockRetry retry = new OptimisticLockRetry(meterRegistry, 3, 1, 2);
+
+    @Test
+    void testExecute_RetriesUntilTheConflictIsGone() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute("update", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Account", 1L);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2, meterRegistry.get("account.optimistic_lock.conflicts").counter().count());
+        assertEquals(3, meterRegistry.get("account.optimistic_lock.attempts").summary().max());
+    }
+
+    @Test
+    void testExecute_GivesUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ConcurrentUpdateException.class, () -> retry.execute("update", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Account", 1L);
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1, meterRegistry.get("account.optimistic_lock.exhausted").counter().count());
+    }
+
+    @Test
+    void testExecute_DoesNotRetryOtherFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> retry.execute("update", () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("Account not found");
+        }));
+
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,45 @@
+package com.microservices.accountservice.util;
+
+import com.microservices.accountservice.dto.TransactionHistoryDTO;
+import com.microservices.accountservice.enums.StatementFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StatementWriterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static TransactionHistoryDTO row(long id) {
+        return new TransactionHistoryDTO(id, START.plusSeconds(id), BigDecimal.valueOf(id % 2 == 0 ? id : -id, 2));
+    }
+
+    @Test
+    void testWrite_Csv() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = new StatementWriter(out, StatementFormat.CSV);
+        writer.write(row(1));
+        writer.write(row(2));
+
+        assertEquals(2, writer.finish());
+        assertEquals("id,transactionDate,transactionAmount\n" +
+                "1,2024-01-01T00:00:01,-0.01\n" +
+                "2,2024-01-01T00:00:02,0.02\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWrite_Ndjson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = new StatementWriter(out, StatementFormat.NDJSON);
+        writer.write(row(1));
+
+        assertEquals(1, writer.finish());
+        assertEquals("{\"id\":1,\"transactionDate\":\"2024-01-01T00:00:01\",\"transactionAmount\":-0.01}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -3,8 +3,11 @@ package com.microservices.userservice.config;
 import com.microservices.userservice.enums.Role;
 import com.microservices.userservice.filter.JwtAuthenticationFilter;
 import com.microservices.userservice.service.CustomUserDetailsService;
+import com.microservices.userservice.util.BoundedPasswordEncoder;
 import com.microservices.userservice.util.JwtAuthenticationEntryPoint;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,6 +21,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 /**
  * SecurityConfig
  */
@@ -32,25 +37,34 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     /**
-     * Password encoder
+     * Password encoder, hashing on a bounded pool of password.hashing.threads workers
+     * @param meterRegistry MeterRegistry
+     * @param threads number of worker threads, half of the processors by default
+     * @param queueCapacity number of requests that may wait for a worker
+     * @param timeout maximum time a request waits for its hash
      * @return PasswordEncoder
      */
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${password.hashing.threads:0}") int threads,
+                                           @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${password.hashing.timeout:2s}") Duration timeout) {
+        int workers = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry, workers, queueCapacity, timeout);
     }
 
     /**
      * Authentication manager
      * @param http HttpSecurity
+     * @param passwordEncoder PasswordEncoder
      * @return AuthenticationManager
      */
 
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authenticationManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         AuthenticationManagerBuilder builder = http.getSharedObject(AuthenticationManagerBuilder.class);
-        builder.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder());
+        builder.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder);
         return builder.build();
     }
 
@@ -65,6 +79,7 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/v1/auth/active-count").hasAnyRole(Role.ADMIN.name(), Role.EMPLOYEE.name())
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api/v1/admin/**").hasRole(Role.ADMIN.name())
                         .requestMatchers("/api/v1/users/create").permitAll()
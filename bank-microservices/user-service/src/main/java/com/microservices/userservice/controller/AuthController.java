@@ -1,24 +1,30 @@
 package com.microservices.userservice.controller;
 
+import com.microservices.userservice.dto.ActiveUserCountDTO;
 import com.microservices.userservice.dto.LoginDTO;
 import com.microservices.userservice.dto.LoginResponseDTO;
+import com.microservices.userservice.dto.RefreshTokenRequestDTO;
+import com.microservices.userservice.dto.TokenRevocationFeedDTO;
 import com.microservices.userservice.model.User;
-import com.microservices.userservice.repository.UserRepository;
+import com.microservices.userservice.service.LoginThrottle;
+import com.microservices.userservice.service.PresenceTracker;
+import com.microservices.userservice.service.RefreshTokenService;
 import com.microservices.userservice.service.TokenBlacklistService;
 import com.microservices.userservice.util.JwtTokenProvider;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Optional;
-
 /**
  * AuthController
  */
@@ -31,39 +37,67 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final TokenBlacklistService tokenBlacklistService;
-    private final UserRepository userRepository;
+    private final PresenceTracker presenceTracker;
+    private final LoginThrottle loginThrottle;
+    private final RefreshTokenService refreshTokenService;
 
     /**
-     * Authenticate user
+     * Authenticate user, unless the username or the client address failed to log in too often recently
      * @param loginDTO LoginDTO
+     * @param request HttpServletRequest
      * @return LoginResponseDTO
      */
     @Operation(summary = "Authenticate user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User authenticated successfully"),
-            @ApiResponse(responseCode = "400", description = "Bad request")
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "429", description = "Too many failed logins")
     })
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> authenticateUser(@RequestBody LoginDTO loginDTO) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginDTO.getUsername(),
-                        loginDTO.getPassword()
-                )
-        );
+    public ResponseEntity<LoginResponseDTO> authenticateUser(@RequestBody LoginDTO loginDTO, HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        LoginThrottle.Attempt attempt = loginThrottle.reserve(loginDTO.getUsername(), address);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginDTO.getUsername(),
+                            loginDTO.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure();
+            throw e;
+        } catch (RuntimeException e) {
+            loginThrottle.release(attempt);
+            throw e;
+        }
+        loginThrottle.recordSuccess(attempt);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = tokenProvider.generateToken(authentication);
 
-        // Fetch the user and set isActive to true
-        Optional<User> optionalUser = userRepository.findByUsername(loginDTO.getUsername());
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-            user.setActive(true);
-            userRepository.save(user);
-        }
+        presenceTracker.markActive(authentication.getName());
 
-        return ResponseEntity.ok(new LoginResponseDTO(jwt));
+        return ResponseEntity.ok(new LoginResponseDTO(jwt, refreshTokenService.issue((User) authentication.getPrincipal())));
+    }
+
+    /**
+     * Renew an access token with a refresh token, without verifying the password again.
+     * The refresh token is replaced by the one in the response and cannot be used again.
+     * @param refreshTokenRequestDTO RefreshTokenRequestDTO
+     * @return LoginResponseDTO
+     */
+    @Operation(summary = "Renew an access token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Access token renewed successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "401", description = "Invalid refresh token")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refreshToken(@Valid @RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        return ResponseEntity.ok(refreshTokenService.refresh(refreshTokenRequestDTO.getRefreshToken()));
     }
 
     @Operation(summary = "Logout user")
@@ -72,20 +106,52 @@ public class AuthController {
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @PostMapping("/logout")
-    public ResponseEntity<Void> logoutUser(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<Void> logoutUser(@RequestHeader("Authorization") String token,
+                                           @RequestBody(required = false) RefreshTokenRequestDTO refreshTokenRequestDTO) {
         String jwt = token.substring(7);
         String username = tokenProvider.getUsernameFromToken(jwt);
 
-        // Fetch the user and set isActive to false
-        Optional<User> optionalUser = userRepository.findByUsername(username);
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-            user.setActive(false);
-            userRepository.save(user);
+        presenceTracker.markInactive(username);
+        if (refreshTokenRequestDTO != null && refreshTokenRequestDTO.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshTokenRequestDTO.getRefreshToken(), username);
         }
 
         tokenBlacklistService.blacklistToken(jwt);
         SecurityContextHolder.clearContext();
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Get the tokens revoked since a version, for other services to keep a local copy of the revocations
+     * @param since version of the last response, 0 for all revocations
+     * @param limit maximum number of revocations
+     * @return TokenRevocationFeedDTO
+     */
+    @Operation(summary = "Get the tokens revoked since a version")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Revocations fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @GetMapping("/revocations")
+    public ResponseEntity<TokenRevocationFeedDTO> getRevocations(@RequestParam(defaultValue = "0") long since,
+                                                                 @RequestParam(defaultValue = "1000") int limit) {
+        if (since < 0 || limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tokenBlacklistService.getRevocationsSince(since, limit));
+    }
+
+    /**
+     * Get the number of logged in users, counted in memory
+     * @return ActiveUserCountDTO
+     */
+    @Operation(summary = "Get the number of logged in users")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Active users counted successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping("/active-count")
+    public ResponseEntity<ActiveUserCountDTO> getActiveUserCount() {
+        return ResponseEntity.ok(new ActiveUserCountDTO(presenceTracker.getActiveCount(), presenceTracker.getPendingCount()));
+    }
 }
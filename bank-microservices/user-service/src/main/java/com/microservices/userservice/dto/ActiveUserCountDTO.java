@@ -0,0 +1,24 @@
+package com.microservices.userservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ActiveUserCountDTO
+ */
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(name = "ActiveUserCountDTO", description = "DTO for the number of logged in users")
+public class ActiveUserCountDTO {
+
+    @Schema(description = "Number of logged in users", example = "42")
+    private long activeUsers;
+
+    @Schema(description = "Presence changes not yet written to the database", example = "3")
+    private long pendingUpdates;
+
+}
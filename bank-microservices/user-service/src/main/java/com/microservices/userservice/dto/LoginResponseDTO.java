@@ -13,4 +13,5 @@ import lombok.Data;
 @Schema(name = "LoginResponseDTO", description = "DTO for login response")
 public class LoginResponseDTO {
     private String token;
+    private String refreshToken;
 }
@@ -0,0 +1,27 @@
+package com.microservices.userservice.dto;
+
+import com.microservices.userservice.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * RefreshTokenGrantDTO, a refresh token together with its owner, read in one query
+ */
+
+@Data
+@AllArgsConstructor
+public class RefreshTokenGrantDTO {
+
+    private Long id;
+
+    private String familyId;
+
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime revokedAt;
+
+    private User user;
+
+}
@@ -0,0 +1,23 @@
+package com.microservices.userservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * RefreshTokenRequestDTO
+ */
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Schema(name = "RefreshTokenRequestDTO", description = "DTO for renewing an access token")
+public class RefreshTokenRequestDTO {
+
+    @NotBlank(message = "Refresh token is required")
+    @Schema(description = "Refresh token returned by the last login or refresh", example = "q3Zk0yQm7mY4l6r1pW0b8cV2xS9tH5nJ3aF7dE1gK4o")
+    private String refreshToken;
+
+}
@@ -0,0 +1,46 @@
+package com.microservices.userservice.dto;
+
+import com.microservices.userservice.enums.Role;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * UserPrincipalDTO
+ * Slim principal of a JWT authenticated request, holding only what the authorization rules need.
+ * It carries no password and cannot be used to log in.
+ */
+
+@Value
+@Schema(name = "UserPrincipalDTO", description = "Principal of an authenticated request")
+public class UserPrincipalDTO implements UserDetails {
+
+    String username;
+
+    Role role;
+
+    /**
+     * Get the authorities of the user
+     * @return Collection of GrantedAuthority
+     */
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * Get the password of the user, which the principal does not carry
+     * @return null
+     */
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
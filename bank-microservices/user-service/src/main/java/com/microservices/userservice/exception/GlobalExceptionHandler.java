@@ -2,8 +2,10 @@ package com.microservices.userservice.exception;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -68,6 +70,40 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public final ResponseEntity<ErrorDetails> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException ex, WebRequest request) {
+        List<String> details = new ArrayList<>();
+        details.add(ex.getLocalizedMessage());
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), "Service Unavailable", request.getDescription(false), details);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(errorDetails);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public final ResponseEntity<ErrorDetails> handleLoginThrottledException(LoginThrottledException ex, WebRequest request) {
+        List<String> details = new ArrayList<>();
+        details.add(ex.getLocalizedMessage());
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), "Too Many Requests", request.getDescription(false), details);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorDetails);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public final ResponseEntity<ErrorDetails> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex, WebRequest request) {
+        List<String> details = new ArrayList<>();
+        details.add(ex.getLocalizedMessage());
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), "Invalid Refresh Token", request.getDescription(false), details);
+        return new ResponseEntity<>(errorDetails, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public final ResponseEntity<ErrorDetails> handleInternalAuthenticationServiceException(InternalAuthenticationServiceException ex, WebRequest request) {
+        if (ex.getCause() instanceof PasswordHashingUnavailableException unavailable) {
+            return handlePasswordHashingUnavailableException(unavailable, request);
+        }
+        return handleAllExceptions(ex, request);
+    }
+
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<ErrorDetails> handleAllExceptions(Exception ex, WebRequest request) {
         List<String> details = new ArrayList<>();
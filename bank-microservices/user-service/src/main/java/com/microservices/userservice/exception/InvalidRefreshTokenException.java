@@ -0,0 +1,13 @@
+package com.microservices.userservice.exception;
+
+import java.io.Serial;
+
+public class InvalidRefreshTokenException extends RuntimeException{
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRefreshTokenException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.microservices.userservice.exception;
+
+import lombok.Getter;
+
+import java.io.Serial;
+
+@Getter
+public class LoginThrottledException extends RuntimeException{
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.microservices.userservice.exception;
+
+import java.io.Serial;
+
+public class PasswordHashingUnavailableException extends RuntimeException{
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingUnavailableException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.microservices.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh Token Entity
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Refresh Token entity")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "ID of the refresh token", example = "1")
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    @Schema(description = "Hex SHA-256 digest of the token", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    @Schema(description = "ID shared by the tokens rotated from the same login", example = "0b8e8d4e-3b1f-4c4e-9a57-2f5b7f0f7c7d")
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    @Schema(description = "ID of the owner", example = "1")
+    private Long userId;
+
+    @Column(nullable = false)
+    @Schema(description = "Expiry of the token", example = "2021-07-15T10:00:00")
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    @Schema(description = "Created at", example = "2021-07-01T10:00:00")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Revoked at, when the token was rotated or revoked", example = "2021-07-01T11:00:00")
+    private LocalDateTime revokedAt;
+}
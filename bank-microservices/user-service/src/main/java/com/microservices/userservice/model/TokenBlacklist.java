@@ -28,9 +28,13 @@ public class TokenBlacklist {
     @Schema(description = "ID of the token blacklist", example = "1")
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 512)
-    @Schema(description = "Token", example = "eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJhZG1pbiJ9")
-    private String token;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    @Schema(description = "Hex SHA-256 digest of the token", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String tokenHash;
+
+    @Column(nullable = false)
+    @Schema(description = "Expiry of the token", example = "2021-07-01T11:00:00")
+    private LocalDateTime expiresAt;
 
     @Column(nullable = false)
     @Schema(description = "Blacklisted at", example = "2021-07-01T10:00:00")
@@ -0,0 +1,68 @@
+package com.microservices.userservice.repository;
+
+import com.microservices.userservice.dto.RefreshTokenGrantDTO;
+import com.microservices.userservice.model.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Refresh Token Repository
+ */
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Find a refresh token and its owner by the digest of the token, in one query
+     * @param tokenHash String
+     * @return Optional<RefreshTokenGrantDTO>
+     */
+    @Query("select new com.microservices.userservice.dto.RefreshTokenGrantDTO(r.id, r.familyId, r.expiresAt, r.revokedAt, u) " +
+            "from RefreshToken r join User u on u.id = r.userId where r.tokenHash = :tokenHash")
+    Optional<RefreshTokenGrantDTO> findGrantByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Revoke a refresh token unless it was revoked already
+     * @param id Long
+     * @param now LocalDateTime
+     * @return the number of revoked tokens, 0 if the token was revoked concurrently
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.id = :id and r.revokedAt is null")
+    int revoke(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoke all the tokens of a family
+     * @param familyId String
+     * @param now LocalDateTime
+     * @return the number of revoked tokens
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.familyId = :familyId and r.revokedAt is null")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoke all the tokens of a user
+     * @param userId Long
+     * @param now LocalDateTime
+     * @return the number of revoked tokens
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.userId = :userId and r.revokedAt is null")
+    int revokeAllOfUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Find the IDs of the refresh tokens that expired before a given time
+     * @param now LocalDateTime
+     * @param pageable Pageable
+     * @return List<Long>
+     */
+    @Query("select r.id from RefreshToken r where r.expiresAt < :now order by r.expiresAt")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -1,8 +1,13 @@
 package com.microservices.userservice.repository;
 
 import com.microservices.userservice.model.TokenBlacklist;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,9 +16,45 @@ import java.util.Optional;
 
 public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist, Long> {
     /**
-     * Find a token by token
-     * @param token String
+     * Find a blacklisted token by the digest of the token
+     * @param tokenHash String
      * @return Optional<TokenBlacklist>
      */
-    Optional<TokenBlacklist> findByToken(String token);
+    Optional<TokenBlacklist> findByTokenHash(String tokenHash);
+
+    /**
+     * Find the blacklisted tokens added after a given ID, oldest first
+     * @param id Long
+     * @param pageable Pageable
+     * @return List<TokenBlacklist>
+     */
+    List<TokenBlacklist> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Find the blacklisted tokens up to a given ID that were blacklisted at or after a given time.
+     * IDs are assigned on insert but rows become visible on commit, so a row can show up after rows with a higher ID were read.
+     * @param blacklistedAt LocalDateTime
+     * @param id Long
+     * @return List<TokenBlacklist>
+     */
+    List<TokenBlacklist> findByBlacklistedAtGreaterThanEqualAndIdLessThanEqual(LocalDateTime blacklistedAt, Long id);
+
+    /**
+     * Find a page of the blacklisted tokens up to a given ID that were blacklisted at or after a given time, highest ID first
+     * @param blacklistedAt LocalDateTime
+     * @param id Long
+     * @param pageable Pageable
+     * @return List<TokenBlacklist>
+     */
+    List<TokenBlacklist> findByBlacklistedAtGreaterThanEqualAndIdLessThanEqualOrderByIdDesc(LocalDateTime blacklistedAt, Long id,
+                                                                                         Pageable pageable);
+
+    /**
+     * Find the IDs of the blacklisted tokens that expired before a given time
+     * @param now LocalDateTime
+     * @param pageable Pageable
+     * @return List<Long>
+     */
+    @Query("select t.id from TokenBlacklist t where t.expiresAt < :now order by t.expiresAt")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
 }
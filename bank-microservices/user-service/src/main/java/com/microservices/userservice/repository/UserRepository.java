@@ -1,8 +1,15 @@
 package com.microservices.userservice.repository;
 
+import com.microservices.userservice.dto.UserPrincipalDTO;
 import com.microservices.userservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,6 +33,35 @@ public interface UserRepository extends JpaRepository<User, Long>{
 
     Optional<User> findByUsername(String username);
 
+    /**
+     * Find the principal of a user by username, without loading the entity
+     * @param username String
+     * @return Optional<UserPrincipalDTO>
+     */
+
+    @Query("select new com.microservices.userservice.dto.UserPrincipalDTO(u.username, u.role) from User u where u.username = :username")
+    Optional<UserPrincipalDTO> findPrincipalByUsername(@Param("username") String username);
+
+    /**
+     * Set the active flag of users with a single column update, without loading the entities
+     * @param usernames Collection<String>
+     * @param active boolean
+     * @return the number of updated rows
+     */
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.isActive = :active where u.username in :usernames")
+    int updateActiveByUsernames(@Param("usernames") Collection<String> usernames, @Param("active") boolean active);
+
+    /**
+     * Find the usernames of the active users
+     * @return List<String>
+     */
+
+    @Query("select u.username from User u where u.isActive = true")
+    List<String> findActiveUsernames();
+
     /**
      * Find a user by identity number
      * @param idNumber String
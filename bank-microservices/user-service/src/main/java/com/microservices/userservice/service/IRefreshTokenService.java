@@ -0,0 +1,42 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.dto.LoginResponseDTO;
+import com.microservices.userservice.model.User;
+
+/**
+ * Refresh Token Service Interface
+ */
+
+public interface IRefreshTokenService {
+
+    /**
+     * Issue the first refresh token of a login
+     * @param user User
+     * @return the opaque refresh token
+     */
+
+    String issue(User user);
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token
+     * @param refreshToken String
+     * @return LoginResponseDTO
+     */
+
+    LoginResponseDTO refresh(String refreshToken);
+
+    /**
+     * Revoke a refresh token of a user, together with the tokens rotated from the same login
+     * @param refreshToken String
+     * @param username String
+     */
+
+    void revoke(String refreshToken, String username);
+
+    /**
+     * Revoke all the refresh tokens of a user
+     * @param userId Long
+     */
+
+    void revokeAll(Long userId);
+}
@@ -1,5 +1,7 @@
 package com.microservices.userservice.service;
 
+import com.microservices.userservice.dto.TokenRevocationFeedDTO;
+
 /**
  * Token Blacklist Service Interface
  */
@@ -20,4 +22,13 @@ public interface ITokenBlacklistService {
      */
 
     boolean isTokenBlacklisted(String token);
+
+    /**
+     * Get the tokens revoked after a version of the revocation feed
+     * @param since long
+     * @param limit int
+     * @return TokenRevocationFeedDTO
+     */
+
+    TokenRevocationFeedDTO getRevocationsSince(long since, int limit);
 }
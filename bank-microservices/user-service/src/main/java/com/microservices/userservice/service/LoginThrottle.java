@@ -0,0 +1,210 @@
+package com.microservices.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.userservice.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts failed logins per username and per client address over a sliding window of
+ * login.throttle.window, and rejects further attempts once either count reaches its limit,
+ * before the password is verified. An attempt is counted when it starts and uncounted if it succeeds,
+ * so a burst of parallel attempts is capped as well. A successful login only uncounts itself, so it does not clear
+ * the failures that others piled up against the username within the window.
+ * The counters live in a bounded cache that drops them once they have not been touched for a window,
+ * and each counter is a ring of time buckets updated with compare and set, so no lock is taken.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerAddress;
+    private final int buckets;
+    private final long bucketMillis;
+    private final LongSupplier clock;
+    private final Cache<String, SlidingWindowCounter> failures;
+    private final Counter failedLogins;
+    private final Counter rejectedByUsername;
+    private final Counter rejectedByAddress;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${login.throttle.max-failures-per-username:5}") int maxFailuresPerUsername,
+                         @Value("${login.throttle.max-failures-per-address:20}") int maxFailuresPerAddress,
+                         @Value("${login.throttle.window:15m}") Duration window,
+                         @Value("${login.throttle.buckets:15}") int buckets,
+                         @Value("${login.throttle.max-entries:100000}") long maxEntries) {
+        this(meterRegistry, maxFailuresPerUsername, maxFailuresPerAddress, window, buckets, maxEntries, System::currentTimeMillis);
+    }
+
+    LoginThrottle(MeterRegistry meterRegistry, int maxFailuresPerUsername, int maxFailuresPerAddress,
+                  Duration window, int buckets, long maxEntries, LongSupplier clock) {
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+        this.clock = clock;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(window)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, failures, "login.throttle");
+        this.failedLogins = Counter.builder("login.failures")
+                .description("Failed logins")
+                .register(meterRegistry);
+        this.rejectedByUsername = Counter.builder("login.throttle.rejected")
+                .description("Logins rejected because of too many recent failures")
+                .tag("scope", "username")
+                .register(meterRegistry);
+        this.rejectedByAddress = Counter.builder("login.throttle.rejected")
+                .description("Logins rejected because of too many recent failures")
+                .tag("scope", "address")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve a login attempt, which counts as a failure until it is recorded as a success or released.
+     * The attempt is counted before the limits are checked, so parallel attempts cannot all pass the check
+     * before the first of them has failed.
+     * @param username the username of the login
+     * @param address the client address
+     * @return the reserved attempt
+     * @throws LoginThrottledException if the username or the address failed too often within the window
+     */
+    public Attempt reserve(String username, String address) {
+        long slot = clock.getAsLong() / bucketMillis;
+        Attempt attempt = new Attempt(usernameKey(username), addressKey(address), slot);
+        long usernameCount = failures.get(attempt.usernameKey(), key -> new SlidingWindowCounter(buckets)).incrementAndSum(slot);
+        long addressCount = failures.get(attempt.addressKey(), key -> new SlidingWindowCounter(buckets)).incrementAndSum(slot);
+        if (usernameCount > maxFailuresPerUsername) {
+            release(attempt);
+            rejectedByUsername.increment();
+            throw new LoginThrottledException("Too many failed logins for this user, please try again later", retryAfterSeconds());
+        }
+        if (addressCount > maxFailuresPerAddress) {
+            release(attempt);
+            rejectedByAddress.increment();
+            throw new LoginThrottledException("Too many failed logins from this address, please try again later", retryAfterSeconds());
+        }
+        return attempt;
+    }
+
+    /**
+     * Record that a login failed. Its reserved attempt simply stays counted.
+     */
+    public void recordFailure() {
+        failedLogins.increment();
+    }
+
+    /**
+     * Record that a reserved attempt succeeded, which uncounts it.
+     * The other attempts within the window stay counted, failed ones included.
+     * @param attempt the reserved attempt
+     */
+    public void recordSuccess(Attempt attempt) {
+        release(attempt);
+    }
+
+    /**
+     * Release a reserved attempt that neither failed nor succeeded, e.g. because the password could not be checked.
+     * @param attempt the reserved attempt
+     */
+    public void release(Attempt attempt) {
+        decrement(attempt.usernameKey(), attempt.slot());
+        decrement(attempt.addressKey(), attempt.slot());
+    }
+
+    private void decrement(String key, long slot) {
+        SlidingWindowCounter counter = failures.getIfPresent(key);
+        if (counter != null) {
+            counter.decrement(slot);
+        }
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, bucketMillis / 1000);
+    }
+
+    private static String usernameKey(String username) {
+        return "username:" + (username == null ? "" : username.toLowerCase());
+    }
+
+    private static String addressKey(String address) {
+        return "address:" + address;
+    }
+
+    /**
+     * A login attempt counted by reserve, in the time slot it was counted in.
+     * @param usernameKey key of the username counter
+     * @param addressKey key of the address counter
+     * @param slot time slot of the attempt
+     */
+    public record Attempt(String usernameKey, String addressKey, long slot) {
+    }
+
+    /**
+     * A ring of buckets, each holding the number of its time slot in the upper bits and its count in the lower bits,
+     * so a bucket is moved to a new slot and counted in a single compare and set.
+     */
+    static final class SlidingWindowCounter {
+
+        private static final int COUNT_BITS = 20;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLongArray slots;
+
+        SlidingWindowCounter(int buckets) {
+            this.slots = new AtomicLongArray(buckets);
+        }
+
+        void increment(long slot) {
+            int index = (int) Math.floorMod(slot, (long) slots.length());
+            long current;
+            long next;
+            do {
+                current = slots.get(index);
+                long count = (current >>> COUNT_BITS) == slot ? current & COUNT_MASK : 0;
+                next = (slot << COUNT_BITS) | Math.min(count + 1, COUNT_MASK);
+            } while (!slots.compareAndSet(index, current, next));
+        }
+
+        long incrementAndSum(long slot) {
+            increment(slot);
+            return sum(slot);
+        }
+
+        void decrement(long slot) {
+            int index = (int) Math.floorMod(slot, (long) slots.length());
+            long current;
+            do {
+                current = slots.get(index);
+                if ((current >>> COUNT_BITS) != slot || (current & COUNT_MASK) == 0) {
+                    // The bucket has moved on to a later slot, so the attempt has already left the window
+                    return;
+                }
+            } while (!slots.compareAndSet(index, current, current - 1));
+        }
+
+        long sum(long slot) {
+            long sum = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long value = slots.get(i);
+                long age = slot - (value >>> COUNT_BITS);
+                if (age >= 0 && age < slots.length()) {
+                    sum += value & COUNT_MASK;
+                }
+            }
+            return sum;
+        }
+    }
+}
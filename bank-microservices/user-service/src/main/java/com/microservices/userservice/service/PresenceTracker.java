@@ -0,0 +1,123 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the logged in users in memory.
+ * Logins and logouts only record the latest state of the user, which is written to the database
+ * every user.presence.flush-interval-ms with one single column update per state, so a user that
+ * logs in and out between two flushes costs one write instead of two entity loads and saves.
+ * The active users are seeded from the database at startup and counted from memory.
+ */
+
+@Slf4j
+@Component
+public class PresenceTracker {
+
+    private final UserRepository userRepository;
+    private final int batchSize;
+    private final Set<String> activeUsers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Boolean> pendingUpdates = new ConcurrentHashMap<>();
+
+    public PresenceTracker(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${user.presence.flush-batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.batchSize = batchSize;
+        meterRegistry.gaugeCollectionSize("user.presence.active", List.of(), activeUsers);
+        meterRegistry.gaugeMapSize("user.presence.pending", List.of(), pendingUpdates);
+    }
+
+    @PostConstruct
+    public void load() {
+        activeUsers.addAll(userRepository.findActiveUsernames());
+        log.info("Loaded {} active users", activeUsers.size());
+    }
+
+    /**
+     * Record a login
+     * @param username String
+     */
+
+    public void markActive(String username) {
+        activeUsers.add(username);
+        pendingUpdates.put(username, true);
+    }
+
+    /**
+     * Record a logout
+     * @param username String
+     */
+
+    public void markInactive(String username) {
+        activeUsers.remove(username);
+        pendingUpdates.put(username, false);
+    }
+
+    /**
+     * Get the number of logged in users
+     * @return long
+     */
+
+    public long getActiveCount() {
+        return activeUsers.size();
+    }
+
+    /**
+     * Get the number of presence changes not yet written to the database
+     * @return long
+     */
+
+    public long getPendingCount() {
+        return pendingUpdates.size();
+    }
+
+    /**
+     * Write the pending presence changes to the database, the latest state of each user only.
+     * Changes that fail to be written are kept for the next flush unless the user changed state since.
+     */
+
+    @Scheduled(fixedDelayString = "${user.presence.flush-interval-ms:1000}")
+    public void flush() {
+        List<String> loggedIn = new ArrayList<>();
+        List<String> loggedOut = new ArrayList<>();
+        for (String username : pendingUpdates.keySet()) {
+            Boolean active = pendingUpdates.remove(username);
+            if (active != null) {
+                (active ? loggedIn : loggedOut).add(username);
+            }
+        }
+        write(loggedIn, true);
+        write(loggedOut, false);
+    }
+
+    private void write(List<String> usernames, boolean active) {
+        for (int from = 0; from < usernames.size(); from += batchSize) {
+            List<String> chunk = usernames.subList(from, Math.min(from + batchSize, usernames.size()));
+            try {
+                userRepository.updateActiveByUsernames(chunk, active);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write the presence of {} users, retrying on the next flush", chunk.size(), e);
+                chunk.forEach(username -> pendingUpdates.putIfAbsent(username, active));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,151 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.dto.LoginResponseDTO;
+import com.microservices.userservice.dto.RefreshTokenGrantDTO;
+import com.microservices.userservice.exception.InvalidRefreshTokenException;
+import com.microservices.userservice.model.RefreshToken;
+import com.microservices.userservice.model.User;
+import com.microservices.userservice.repository.RefreshTokenRepository;
+import com.microservices.userservice.util.JwtTokenProvider;
+import com.microservices.userservice.util.TokenDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh Token Service
+ * Refresh tokens are random values that are only stored as their SHA-256 digest. Renewing an access token
+ * looks the digest up together with its owner in one query and signs a new access token, without a password hash.
+ * Each refresh token can be used once: it is revoked and replaced by a new token of the same family,
+ * and presenting a revoked token again revokes the family, since the token must have been copied.
+ * Tokens belong to the user by ID, and all of them are revoked when the username or the password changes.
+ */
+
+@Slf4j
+@Service
+public class RefreshTokenService implements IRefreshTokenService{
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final Duration expiration;
+    private final int purgeBatchSize;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtTokenProvider jwtTokenProvider,
+                               @Value("${jwt.refresh-expiration:14d}") Duration expiration,
+                               @Value("${jwt.refresh-purge-batch-size:1000}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.expiration = expiration;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Issue the first refresh token of a login, starting a new family
+     * @param user User
+     * @return the opaque refresh token
+     */
+
+    @Override
+    @Transactional
+    public String issue(User user) {
+        return store(user.getId(), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token of the same family
+     * @param refreshToken String
+     * @return LoginResponseDTO
+     * @throws InvalidRefreshTokenException if the token is unknown, expired or was used already
+     */
+
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public LoginResponseDTO refresh(String refreshToken) {
+        RefreshTokenGrantDTO grant = refreshTokenRepository.findGrantByTokenHash(TokenDigest.hex(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        if (!grant.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+        if (grant.getRevokedAt() != null || refreshTokenRepository.revoke(grant.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(grant.getFamilyId(), now);
+            log.warn("Reused refresh token of user {}, revoked {} tokens of its family", grant.getUser().getUsername(), revoked);
+            throw new InvalidRefreshTokenException("Refresh token was already used");
+        }
+        String accessToken = jwtTokenProvider.generateToken(grant.getUser());
+        return new LoginResponseDTO(accessToken, store(grant.getUser().getId(), grant.getFamilyId()));
+    }
+
+    /**
+     * Revoke a refresh token of a user, together with the tokens rotated from the same login.
+     * Tokens that are unknown or belong to another user are ignored.
+     * @param refreshToken String
+     * @param username String
+     */
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken, String username) {
+        refreshTokenRepository.findGrantByTokenHash(TokenDigest.hex(refreshToken))
+                .filter(grant -> grant.getUser().getUsername().equals(username))
+                .ifPresent(grant -> refreshTokenRepository.revokeFamily(grant.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Revoke all the refresh tokens of a user, e.g. because the username or the password changed
+     * @param userId Long
+     */
+
+    @Override
+    @Transactional
+    public void revokeAll(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllOfUser(userId, LocalDateTime.now());
+        log.info("Revoked {} refresh tokens of user {}", revoked, userId);
+    }
+
+    /**
+     * Delete the expired refresh tokens, in chunks of jwt.refresh-purge-batch-size rows
+     * @return the number of deleted rows
+     */
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval-ms:3600000}")
+    public long purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, purgeBatchSize));
+            if (!ids.isEmpty()) {
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                deleted += ids.size();
+            }
+        } while (ids.size() == purgeBatchSize);
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+        return deleted;
+    }
+
+    private String store(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(new RefreshToken(null, TokenDigest.hex(token), familyId, userId, now.plus(expiration), now, null));
+        return token;
+    }
+}
@@ -0,0 +1,77 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.repository.TokenBlacklistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes the blacklisted tokens that have expired, in chunks of token.blacklist.purge-batch-size rows
+ * so no single statement holds locks on a large part of the table.
+ * The size of the table is sampled after each run rather than counted on every scrape.
+ */
+
+@Slf4j
+@Component
+public class TokenBlacklistPurger {
+
+    private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final int batchSize;
+    private final Counter purgedRows;
+    private final Timer purgeTimer;
+    private final AtomicLong tableSize = new AtomicLong();
+
+    public TokenBlacklistPurger(TokenBlacklistRepository tokenBlacklistRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${token.blacklist.purge-batch-size:1000}") int batchSize) {
+        this.tokenBlacklistRepository = tokenBlacklistRepository;
+        this.batchSize = batchSize;
+        this.purgedRows = Counter.builder("token.blacklist.purged")
+                .description("Expired blacklisted tokens deleted")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("token.blacklist.purge")
+                .description("Duration of a purge of expired blacklisted tokens")
+                .register(meterRegistry);
+        meterRegistry.gauge("token.blacklist.size", tableSize);
+    }
+
+    /**
+     * Purge the expired tokens
+     * @return the number of deleted rows
+     */
+
+    @Scheduled(fixedDelayString = "${token.blacklist.purge-interval-ms:600000}")
+    public long purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.nanoTime();
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = tokenBlacklistRepository.findExpiredIds(now, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                tokenBlacklistRepository.deleteAllByIdInBatch(ids);
+                deleted += ids.size();
+                purgedRows.increment(ids.size());
+            }
+        } while (ids.size() == batchSize);
+
+        long elapsed = System.nanoTime() - start;
+        purgeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        tableSize.set(tokenBlacklistRepository.count());
+        if (deleted > 0) {
+            log.info("Purged {} expired blacklisted tokens in {} ms ({} rows/s)", deleted,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), deleted * 1_000_000_000L / Math.max(1, elapsed));
+        }
+        return deleted;
+    }
+}
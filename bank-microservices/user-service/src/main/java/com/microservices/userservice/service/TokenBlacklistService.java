@@ -1,11 +1,22 @@
 package com.microservices.userservice.service;
 
+import com.microservices.userservice.dto.TokenRevocationDTO;
+import com.microservices.userservice.dto.TokenRevocationFeedDTO;
 import com.microservices.userservice.model.TokenBlacklist;
 import com.microservices.userservice.repository.TokenBlacklistRepository;
+import com.microservices.userservice.util.JwtTokenProvider;
+import com.microservices.userservice.util.TokenDigest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 
 /**
  * Token Blacklist Service
@@ -16,28 +27,70 @@ import java.time.LocalDateTime;
 public class TokenBlacklistService implements ITokenBlacklistService{
 
     private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    @Value("${token.revocation.overlap:60s}")
+    private Duration overlap = Duration.ofSeconds(60);
 
     /**
-     * Blacklist a token
+     * Blacklist a token until it expires. Only the digest of the token is stored.
+     * Tokens that are invalid or already expired are rejected anyway and are not stored.
      * @param token String
      */
 
     @Override
     public void blacklistToken(String token) {
+        Date expiration = jwtTokenProvider.getExpirationFromToken(token);
+        if (expiration == null || !expiration.after(new Date())) {
+            return;
+        }
         TokenBlacklist tokenBlacklist = new TokenBlacklist();
-        tokenBlacklist.setToken(token);
+        tokenBlacklist.setTokenHash(TokenDigest.hex(token));
+        tokenBlacklist.setExpiresAt(LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault()));
         tokenBlacklist.setBlacklistedAt(LocalDateTime.now());
         tokenBlacklistRepository.save(tokenBlacklist);
+        tokenRevocationIndex.add(tokenBlacklist.getTokenHash(), tokenBlacklist.getExpiresAt());
     }
 
     /**
-     * Check if a token is blacklisted
+     * Check if a token is blacklisted, against the in-memory revocation index
      * @param token String
      * @return boolean
      */
 
     @Override
     public boolean isTokenBlacklisted(String token) {
-        return tokenBlacklistRepository.findByToken(token).isPresent();
+        return tokenRevocationIndex.isRevoked(token);
+    }
+
+    /**
+     * Get the tokens revoked after a version of the revocation feed.
+     * The version is the ID of the last blacklist row read, so versions only grow.
+     * A row can commit after rows with a higher ID were read, so the tokens up to the version that were blacklisted
+     * within token.revocation.overlap are sent again. Clients keep the revocations by digest, so repeats are harmless.
+     * They only fill the room the new rows leave within the limit, so they are sent once per catch-up, with its last page,
+     * highest ID first, since a row that commits late has an ID close to the rows read before it.
+     * @param since long
+     * @param limit int
+     * @return TokenRevocationFeedDTO
+     */
+
+    @Override
+    public TokenRevocationFeedDTO getRevocationsSince(long since, int limit) {
+        List<TokenBlacklist> rows = tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(since, PageRequest.of(0, limit));
+        long version = rows.isEmpty() ? since : rows.get(rows.size() - 1).getId();
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenBlacklist> revoked = new ArrayList<>();
+        if (since > 0 && rows.size() < limit) {
+            revoked.addAll(tokenBlacklistRepository.findByBlacklistedAtGreaterThanEqualAndIdLessThanEqualOrderByIdDesc(
+                    now.minus(overlap), since, PageRequest.of(0, limit - rows.size())));
+        }
+        revoked.addAll(rows);
+        List<TokenRevocationDTO> revocations = revoked.stream()
+                .filter(row -> row.getExpiresAt().isAfter(now))
+                .map(row -> new TokenRevocationDTO(row.getTokenHash(), row.getExpiresAt()))
+                .toList();
+        return new TokenRevocationFeedDTO(version, rows.size() == limit, revocations);
     }
 }
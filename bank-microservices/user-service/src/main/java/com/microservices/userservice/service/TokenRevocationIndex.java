@@ -0,0 +1,158 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.model.TokenBlacklist;
+import com.microservices.userservice.repository.TokenBlacklistRepository;
+import com.microservices.userservice.util.BloomFilter;
+import com.microservices.userservice.util.TokenDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the revoked tokens that have not expired yet, keyed by the SHA-256 digest of the token.
+ * A Bloom filter in front of the index answers the common "not revoked" case without touching the map,
+ * and neither needs the database. The index is loaded from the token blacklist at startup and then polls it
+ * for tokens revoked by other instances. Since a row can commit after rows with a higher ID were read,
+ * each refresh also re-reads the rows blacklisted within token.revocation.overlap before the previous refresh.
+ * Tokens drop out of the index once they have expired, since the filter rejects expired tokens anyway.
+ */
+
+@Slf4j
+@Component
+public class TokenRevocationIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final long expectedRevocations;
+    private final Duration overlap;
+    private final Map<String, Long> expiryByDigest = new ConcurrentHashMap<>();
+    private final Counter bloomNegatives;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter bloomFilter;
+    private long lastLoadedId;
+    private LocalDateTime lastRefreshStartedAt;
+
+    public TokenRevocationIndex(TokenBlacklistRepository tokenBlacklistRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${token.revocation.expected-revocations:100000}") long expectedRevocations,
+                                @Value("${token.revocation.overlap:60s}") Duration overlap) {
+        this.tokenBlacklistRepository = tokenBlacklistRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.overlap = overlap;
+        this.bloomFilter = new BloomFilter(expectedRevocations, 0.01);
+        this.bloomNegatives = lookupCounter(meterRegistry, "bloom_negative");
+        this.revokedHits = lookupCounter(meterRegistry, "revoked");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        meterRegistry.gaugeMapSize("token.revocation.index.size", List.of(), expiryByDigest);
+    }
+
+    /**
+     * Load the revoked tokens at startup
+     */
+
+    @PostConstruct
+    public void load() {
+        refresh();
+        log.info("Loaded {} revoked tokens into the revocation index", expiryByDigest.size());
+    }
+
+    /**
+     * Add the tokens revoked since the last refresh, including those revoked by other instances
+     * and those that committed after rows with a higher ID had been read
+     */
+
+    @Scheduled(fixedDelayString = "${token.revocation.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        if (lastRefreshStartedAt != null) {
+            for (TokenBlacklist tokenBlacklist : tokenBlacklistRepository.findByBlacklistedAtGreaterThanEqualAndIdLessThanEqual(
+                    lastRefreshStartedAt.minus(overlap), lastLoadedId)) {
+                add(tokenBlacklist.getTokenHash(), tokenBlacklist.getExpiresAt());
+            }
+        }
+        List<TokenBlacklist> batch;
+        do {
+            batch = tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(lastLoadedId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (TokenBlacklist tokenBlacklist : batch) {
+                add(tokenBlacklist.getTokenHash(), tokenBlacklist.getExpiresAt());
+                lastLoadedId = tokenBlacklist.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        lastRefreshStartedAt = started;
+    }
+
+    /**
+     * Add a revoked token
+     * @param tokenHash hex SHA-256 digest of the token
+     * @param expiresAt expiry of the token
+     */
+
+    public synchronized void add(String tokenHash, LocalDateTime expiresAt) {
+        long expiry = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (expiry <= System.currentTimeMillis()) {
+            // Expired tokens are rejected before they are checked against the index
+            return;
+        }
+        expiryByDigest.put(tokenHash, expiry);
+        bloomFilter.put(HexFormat.of().parseHex(tokenHash));
+    }
+
+    /**
+     * Check if a token is revoked and not expired yet
+     * @param token String
+     * @return boolean
+     */
+
+    public boolean isRevoked(String token) {
+        byte[] digest = TokenDigest.digest(token);
+        if (!bloomFilter.mightContain(digest)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        Long expiry = expiryByDigest.get(HexFormat.of().formatHex(digest));
+        if (expiry == null || expiry <= System.currentTimeMillis()) {
+            falsePositives.increment();
+            return false;
+        }
+        revokedHits.increment();
+        return true;
+    }
+
+    /**
+     * Drop the expired tokens and rebuild the Bloom filter without them
+     */
+
+    @Scheduled(fixedDelayString = "${token.revocation.purge-interval-ms:60000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (!expiryByDigest.values().removeIf(expiry -> expiry <= now)) {
+            return;
+        }
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, expiryByDigest.size()), 0.01);
+        expiryByDigest.keySet().forEach(digest -> rebuilt.put(HexFormat.of().parseHex(digest)));
+        bloomFilter = rebuilt;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("token.revocation.lookups")
+                .description("Revocation checks by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
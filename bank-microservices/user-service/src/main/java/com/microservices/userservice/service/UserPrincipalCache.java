@@ -0,0 +1,75 @@
+package com.microservices.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.userservice.dto.UserPrincipalDTO;
+import com.microservices.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of the principals of JWT authenticated requests, keyed by username.
+ * The users table is only read on a miss. Entries are evicted when a user is updated or deleted,
+ * and expire after user.principal-cache.ttl, which also bounds how long another instance can serve
+ * a principal it did not evict itself.
+ */
+
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipalDTO> principals;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${user.principal-cache.max-size:100000}") long maxSize,
+                              @Value("${user.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "user.principals");
+    }
+
+    /**
+     * Load the principal of a user, reading it from the database on a miss. Unknown users are not cached.
+     * @param username String
+     * @return UserPrincipalDTO
+     * @throws UsernameNotFoundException if the user does not exist
+     */
+
+    public UserPrincipalDTO loadPrincipal(String username) throws UsernameNotFoundException {
+        UserPrincipalDTO principal = principals.get(username, key -> userRepository.findPrincipalByUsername(key).orElse(null));
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
+        return principal;
+    }
+
+    /**
+     * Evict the principal of a user. Inside a transaction it is evicted again after commit,
+     * so a request that reloaded the uncommitted old row in between does not keep it.
+     * @param username String
+     */
+
+    public void evict(String username) {
+        principals.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(username);
+                }
+            });
+        }
+    }
+}
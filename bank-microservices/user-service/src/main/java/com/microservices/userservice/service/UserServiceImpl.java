@@ -29,6 +29,8 @@ public class UserServiceImpl implements IUserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache userPrincipalCache;
+    private final IRefreshTokenService refreshTokenService;
 
     /**
      * Create a new user
@@ -114,12 +116,19 @@ public class UserServiceImpl implements IUserService {
         userMapper.updateUserFromDto(dto, user);
 
         // Encode the password if it's being changed
-        if (!passwordEncoder.matches(dto.getPassword(), user.getPassword())) {
+        boolean passwordChanged = !passwordEncoder.matches(dto.getPassword(), user.getPassword());
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(dto.getPassword()));
         }
 
         // Save updated user to the database
         user = userRepository.save(user);
+        userPrincipalCache.evict(currentPrincipalName);
+
+        // Sessions started with the old credentials must log in again
+        if (passwordChanged || !user.getUsername().equals(currentPrincipalName)) {
+            refreshTokenService.revokeAll(user.getId());
+        }
 
         // Map Entity to ReadOnly DTO
         UserReadOnlyDTO userReadOnlyDTO = userMapper.toUserReadOnlyDTO(user);
@@ -131,6 +140,7 @@ public class UserServiceImpl implements IUserService {
     }
 
     @Override
+    @Transactional
     public UserReadOnlyDTO updateUsernameAndEmail(UserUpdateUsernameAndEmailDTO dto) throws EntityNotFoundException, EmailAlreadyExistsException, UsernameAlreadyExistsException {
         UserGetCurrentLoggedInUserDTO currentUser = getUser();
         String username = currentUser.getUsername();
@@ -148,6 +158,12 @@ public class UserServiceImpl implements IUserService {
         user.setEmail(dto.getEmail());
 
         user = userRepository.save(user);
+        userPrincipalCache.evict(username);
+
+        // Sessions started under the old username must log in again
+        if (!user.getUsername().equals(username)) {
+            refreshTokenService.revokeAll(user.getId());
+        }
 
         return userMapper.toUserReadOnlyDTO(user);
     }
@@ -165,6 +181,7 @@ public class UserServiceImpl implements IUserService {
         String currentPrincipalName = authentication.getName();
         User user = userRepository.findByUsername(currentPrincipalName).orElseThrow(EntityNotFoundException::new);
         userRepository.delete(user);
+        userPrincipalCache.evict(currentPrincipalName);
         log.info("User deleted with ID: {}", user.getId());
         return userMapper.toUserDeleteDTO(user);
     }
@@ -0,0 +1,71 @@
+package com.microservices.userservice.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over SHA-256 digests.
+ * The digest bytes are already uniformly distributed, so the bit positions are derived from them by double hashing
+ * instead of hashing again. Lookups and insertions are lock-free; entries cannot be removed.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Create a Bloom filter sized for the expected number of entries
+     * @param expectedEntries expected number of entries
+     * @param falsePositiveRate acceptable false positive rate at that number of entries
+     */
+
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long entries = Math.max(1, expectedEntries);
+        long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, optimalBits);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+
+    /**
+     * Add a digest
+     * @param digest SHA-256 digest, at least 16 bytes
+     */
+
+    public void put(byte[] digest) {
+        long hash1 = toLong(digest, 0);
+        long hash2 = toLong(digest, 8);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            bits.getAndAccumulate(word, mask, (current, add) -> current | add);
+        }
+    }
+
+    /**
+     * Check whether a digest may have been added
+     * @param digest SHA-256 digest, at least 16 bytes
+     * @return false if the digest was definitely not added, true if it may have been
+     */
+
+    public boolean mightContain(byte[] digest) {
+        long hash1 = toLong(digest, 0);
+        long hash2 = toLong(digest, 8);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -45,8 +45,15 @@ public class JwtTokenProvider {
      * @return JWT token
      */
     public String generateToken(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        return generateToken((User) authentication.getPrincipal());
+    }
 
+    /**
+     * Generate JWT token for a user
+     * @param user User
+     * @return JWT token
+     */
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", user.getUsername());
         claims.put("firstname", user.getFirstname());
@@ -108,6 +115,21 @@ public class JwtTokenProvider {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Get the expiration date of a JWT token, also if the token has already expired
+     * @param token JWT token
+     * @return expiration date, or null if the token is invalid or has none
+     */
+    public Date getExpirationFromToken(String token) {
+        try {
+            return getAllClaimsFromToken(token).getExpiration();
+        } catch (ExpiredJwtException ex) {
+            return ex.getClaims().getExpiration();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Get all claims from JWT token
      * @param token JWT token
@@ -0,0 +1,40 @@
+package com.microservices.userservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digests of tokens, as stored in place of the tokens themselves
+ */
+
+public final class TokenDigest {
+
+    private TokenDigest() {
+    }
+
+    /**
+     * Get the SHA-256 digest of a token
+     * @param token String
+     * @return byte[]
+     */
+
+    public static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Get the SHA-256 digest of a token as 64 lowercase hex characters
+     * @param token String
+     * @return String
+     */
+
+    public static String hex(String token) {
+        return HexFormat.of().formatHex(digest(token));
+    }
+}
@@ -0,0 +1,73 @@
+package db.migration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.userservice.util.TokenDigest;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * Moves the blacklisted tokens into token_blacklist_hashed as digests with their expiry, then replaces
+ * token_blacklist with it. The expiry is read from the payload of the token; the signature was checked when the token
+ * was blacklisted. Tokens that have already expired, or whose expiry cannot be read, are not carried over,
+ * since they are rejected before the blacklist is consulted.
+ */
+public class V3__Move_token_blacklist_to_hashes extends BaseJavaMigration {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT token, blacklisted_at FROM token_blacklist");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO token_blacklist_hashed (token_hash, expires_at, blacklisted_at) VALUES (?, ?, ?)")) {
+            while (rows.next()) {
+                String token = rows.getString(1);
+                LocalDateTime expiresAt = expiryOf(token);
+                if (expiresAt == null || !expiresAt.isAfter(now)) {
+                    continue;
+                }
+                insert.setString(1, TokenDigest.hex(token));
+                insert.setTimestamp(2, Timestamp.valueOf(expiresAt));
+                insert.setTimestamp(3, rows.getTimestamp(2));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE token_blacklist");
+            ddl.execute("ALTER TABLE token_blacklist_hashed RENAME TO token_blacklist");
+        }
+    }
+
+    private static LocalDateTime expiryOf(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        try {
+            JsonNode exp = OBJECT_MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1])).path("exp");
+            if (!exp.canConvertToLong()) {
+                return null;
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochSecond(exp.asLong()), ZoneId.systemDefault());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
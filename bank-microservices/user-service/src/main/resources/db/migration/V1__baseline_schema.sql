@@ -0,0 +1,46 @@
+-- Baseline of the user-service schema as previously generated by Hibernate.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE users
+(
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    created_date         DATETIME(6),
+    updated_date         DATETIME(6),
+    created_by           VARCHAR(255),
+    updated_by           VARCHAR(255),
+    is_active            BIT          NOT NULL,
+    username             VARCHAR(255) NOT NULL,
+    firstname            VARCHAR(255) NOT NULL,
+    lastname             VARCHAR(255) NOT NULL,
+    email                VARCHAR(255) NOT NULL,
+    identity_number      VARCHAR(255) NOT NULL,
+    phone_number         VARCHAR(255) NOT NULL,
+    password             VARCHAR(255) NOT NULL,
+    date_of_birth        DATE         NOT NULL,
+    role                 VARCHAR(255) NOT NULL,
+    country              VARCHAR(255) NOT NULL,
+    city                 VARCHAR(255) NOT NULL,
+    address              VARCHAR(255) NOT NULL,
+    postal_code          VARCHAR(255) NOT NULL,
+    occupation           VARCHAR(255) NOT NULL,
+    company              VARCHAR(255) NOT NULL,
+    company_address      VARCHAR(255) NOT NULL,
+    company_postal_code  VARCHAR(255) NOT NULL,
+    company_city         VARCHAR(255) NOT NULL,
+    company_country      VARCHAR(255) NOT NULL,
+    company_phone_number VARCHAR(255) NOT NULL,
+    company_email        VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_users_username UNIQUE (username),
+    CONSTRAINT ux_users_email UNIQUE (email),
+    CONSTRAINT ux_users_identity_number UNIQUE (identity_number)
+);
+
+CREATE TABLE token_blacklist
+(
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    token          VARCHAR(512) NOT NULL,
+    blacklisted_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_token_blacklist_token UNIQUE (token)
+);
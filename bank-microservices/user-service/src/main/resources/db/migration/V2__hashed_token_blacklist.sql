@@ -0,0 +1,14 @@
+-- Revoked tokens are stored as the hex SHA-256 digest of the token together with the token's expiry,
+-- so the unique index stays small and expired rows can be purged by expires_at.
+-- V3 moves the existing rows over and replaces token_blacklist with this table.
+CREATE TABLE token_blacklist_hashed
+(
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    token_hash     VARCHAR(64) NOT NULL,
+    expires_at     DATETIME(6) NOT NULL,
+    blacklisted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_token_blacklist_token_hash UNIQUE (token_hash)
+);
+
+CREATE INDEX ix_token_blacklist_expires_at ON token_blacklist_hashed (expires_at);
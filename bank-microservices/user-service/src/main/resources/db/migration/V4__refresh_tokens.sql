@@ -0,0 +1,18 @@
+-- Refresh tokens are opaque random values, stored as the hex SHA-256 digest of the token.
+-- Every refresh revokes the presented token and issues a new one in the same family,
+-- so a revoked token that is presented again revokes the whole family.
+CREATE TABLE refresh_token
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64)  NOT NULL,
+    family_id  VARCHAR(36)  NOT NULL,
+    username   VARCHAR(255) NOT NULL,
+    expires_at DATETIME(6)  NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    revoked_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT ux_refresh_token_token_hash UNIQUE (token_hash)
+);
+
+CREATE INDEX ix_refresh_token_family_id ON refresh_token (family_id);
+CREATE INDEX ix_refresh_token_expires_at ON refresh_token (expires_at);
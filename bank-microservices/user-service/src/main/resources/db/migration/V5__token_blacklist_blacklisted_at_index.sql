@@ -0,0 +1,3 @@
+-- The revocation index and feed re-read the tokens blacklisted within a recent window by blacklisted_at,
+-- to pick up rows that committed after rows with a higher ID had already been read.
+CREATE INDEX ix_token_blacklist_blacklisted_at ON token_blacklist (blacklisted_at);
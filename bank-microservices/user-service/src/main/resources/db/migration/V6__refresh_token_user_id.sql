@@ -0,0 +1,16 @@
+-- Refresh tokens belong to the user by ID, so they survive a change of username and cannot pass
+-- to a user that takes the old username later. Deleting a user deletes its refresh tokens.
+-- The column is added with a placeholder default, so it can be NOT NULL without a MySQL-only MODIFY;
+-- tokens whose user no longer exists keep the placeholder and are deleted.
+ALTER TABLE refresh_token ADD COLUMN user_id BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE refresh_token SET user_id = COALESCE((SELECT u.id FROM users u WHERE u.username = refresh_token.username), 0);
+
+DELETE FROM refresh_token WHERE user_id = 0;
+
+ALTER TABLE refresh_token ALTER COLUMN user_id DROP DEFAULT;
+
+ALTER TABLE refresh_token DROP COLUMN username;
+
+ALTER TABLE refresh_token
+    ADD CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
@@ -0,0 +1,75 @@
+package com.microservices.userservice.controller;
+
+import com.microservices.userservice.dto.LoginDTO;
+import com.microservices.userservice.exception.LoginThrottledException;
+import com.microservices.userservice.service.LoginThrottle;
+import com.microservices.userservice.service.PresenceTracker;
+import com.microservices.userservice.service.RefreshTokenService;
+import com.microservices.userservice.service.TokenBlacklistService;
+import com.microservices.userservice.util.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthControllerTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Mock
+    private PresenceTracker presenceTracker;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    private AuthController authController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        LoginThrottle loginThrottle = new LoginThrottle(new SimpleMeterRegistry(), 5, 20, Duration.ofMinutes(15), 15, 1000);
+        authController = new AuthController(authenticationManager, tokenProvider, tokenBlacklistService, presenceTracker, loginThrottle, refreshTokenService);
+    }
+
+    @Test
+    void authenticateUser_CapsPasswordChecksUnderAttack() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        int throttled = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setRemoteAddr("10.0.0." + (i % 4));
+            String username = i % 2 == 0 ? "johndoe" : "user" + i;
+            LoginDTO loginDTO = new LoginDTO();
+            loginDTO.setUsername(username);
+            loginDTO.setPassword("guess" + i);
+            try {
+                authController.authenticateUser(loginDTO, request);
+            } catch (BadCredentialsException e) {
+                // the password was checked and was wrong
+            } catch (LoginThrottledException e) {
+                throttled++;
+            }
+        }
+
+        verify(authenticationManager, atMost(4 * 20)).authenticate(any());
+        assertTrue(throttled >= 1000 - 4 * 20);
+        verifyNoInteractions(presenceTracker);
+    }
+}
@@ -0,0 +1,116 @@
+package com.microservices.userservice.repository;
+
+import com.microservices.userservice.dto.LoginResponseDTO;
+import com.microservices.userservice.exception.InvalidRefreshTokenException;
+import com.microservices.userservice.model.User;
+import com.microservices.userservice.service.RefreshTokenService;
+import com.microservices.userservice.util.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs against the Flyway managed schema on H2 in MySQL mode, with Hibernate validating the entities against it.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RefreshTokenService.class)
+class RefreshTokenRepositoryTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (is_active, username, firstname, lastname, email, identity_number, phone_number, " +
+                "password, date_of_birth, role, country, city, address, postal_code, occupation, company, company_address, " +
+                "company_postal_code, company_city, company_country, company_phone_number, company_email) " +
+                "VALUES (TRUE, 'johndoe', 'John', 'Doe', 'john@example.com', 'AB123456', '6900000000', 'hash', DATE '1990-01-01', " +
+                "'USER', 'Greece', 'Athens', 'Street 1', '10000', 'Engineer', 'Acme', 'Street 2', '10001', 'Athens', 'Greece', " +
+                "'2100000000', 'info@acme.com')");
+        user = new User();
+        user.setId(jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'johndoe'", Long.class));
+        when(jwtTokenProvider.generateToken(any(User.class))).thenAnswer(invocation -> "access-" + invocation.<User>getArgument(0).getUsername());
+    }
+
+    @Test
+    void testRefresh_RotatesTheTokenAndSignsForItsOwner() {
+        String first = refreshTokenService.issue(user);
+
+        LoginResponseDTO response = refreshTokenService.refresh(first);
+
+        assertEquals("access-johndoe", response.getToken());
+        assertNotEquals(first, response.getRefreshToken());
+        assertNotNull(refreshTokenService.refresh(response.getRefreshToken()).getRefreshToken());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token WHERE token_hash = ?", Integer.class, first));
+    }
+
+    @Test
+    void testRefresh_ReusedTokenRevokesItsFamily() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.refresh(first).getRefreshToken();
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(first));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(second));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("unknown"));
+    }
+
+    @Test
+    void testRevoke_IgnoresTokensOfOtherUsers() {
+        String token = refreshTokenService.issue(user);
+
+        refreshTokenService.revoke(token, "janedoe");
+        String next = refreshTokenService.refresh(token).getRefreshToken();
+        refreshTokenService.revoke(next, "johndoe");
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(next));
+    }
+
+    @Test
+    void testRefresh_FollowsTheUserAcrossARename() {
+        String token = refreshTokenService.issue(user);
+        jdbcTemplate.update("UPDATE users SET username = 'johnsmith' WHERE id = ?", user.getId());
+
+        assertEquals("access-johnsmith", refreshTokenService.refresh(token).getToken());
+    }
+
+    @Test
+    void testRevokeAll_RevokesEveryFamilyOfTheUser() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.issue(user);
+
+        refreshTokenService.revokeAll(user.getId());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(first));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(second));
+    }
+
+    @Test
+    void testDeleteUser_DeletesItsRefreshTokens() {
+        refreshTokenService.issue(user);
+
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token", Integer.class));
+    }
+}
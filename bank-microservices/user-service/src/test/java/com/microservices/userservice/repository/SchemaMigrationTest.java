@@ -0,0 +1,54 @@
+package com.microservices.userservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fills the schema of an earlier version, then upgrades it to the latest version on H2 without the MySQL mode,
+ * so the migrations cannot rely on MySQL-only syntax.
+ */
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:user_upgrade_db;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .target(target)
+                .load();
+    }
+
+    @Test
+    void testRefreshTokens_AreLinkedToTheirUserById() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+
+        flyway("5").migrate();
+        jdbcTemplate.update("INSERT INTO users (is_active, username, firstname, lastname, email, identity_number, " +
+                "phone_number, password, date_of_birth, role, country, city, address, postal_code, occupation, company, " +
+                "company_address, company_postal_code, company_city, company_country, company_phone_number, company_email) " +
+                "VALUES (TRUE, 'testuser', 'Test', 'User', 'testuser@example.com', 'ID123', '123', 'password', " +
+                "DATE '1990-01-01', 'USER', 'GR', 'Athens', 'Street 1', '10000', 'Developer', 'Company', 'Street 2', " +
+                "'10001', 'Athens', 'GR', '456', 'company@example.com')");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users", Long.class);
+        for (String[] row : new String[][]{{"a".repeat(64), "testuser"}, {"b".repeat(64), "gone"}}) {
+            jdbcTemplate.update("INSERT INTO refresh_token (token_hash, family_id, username, expires_at, created_at) " +
+                    "VALUES (?, 'family', ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", row[0], row[1]);
+        }
+
+        flyway("latest").migrate();
+
+        List<Map<String, Object>> tokens = jdbcTemplate.queryForList("SELECT token_hash, user_id FROM refresh_token");
+        assertEquals(1, tokens.size());
+        assertEquals("a".repeat(64), tokens.get(0).get("token_hash"));
+        assertEquals(userId, ((Number) tokens.get(0).get("user_id")).longValue());
+        assertEquals("NO", jdbcTemplate.queryForObject("SELECT is_nullable FROM information_schema.columns " +
+                "WHERE table_name = 'refresh_token' AND column_name = 'user_id'", String.class));
+    }
+}
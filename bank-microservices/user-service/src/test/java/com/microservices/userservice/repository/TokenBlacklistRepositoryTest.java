@@ -0,0 +1,58 @@
+package com.microservices.userservice.repository;
+
+import com.microservices.userservice.model.TokenBlacklist;
+import com.microservices.userservice.service.TokenBlacklistPurger;
+import com.microservices.userservice.util.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the Flyway managed schema on H2 in MySQL mode, with Hibernate validating the entities against it.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "token.blacklist.purge-batch-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TokenBlacklistPurger.class, SimpleMeterRegistry.class})
+class TokenBlacklistRepositoryTest {
+
+    @Autowired
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Autowired
+    private TokenBlacklistPurger tokenBlacklistPurger;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    private void blacklist(String token, LocalDateTime expiresAt) {
+        tokenBlacklistRepository.save(new TokenBlacklist(null, TokenDigest.hex(token), expiresAt, LocalDateTime.now()));
+    }
+
+    @Test
+    void testPurgeExpired_DeletesExpiredTokensInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            blacklist("expired-token-" + i, now.minusMinutes(i + 1));
+        }
+        blacklist("live-token", now.plusHours(1));
+        tokenBlacklistRepository.flush();
+
+        assertEquals(5, tokenBlacklistPurger.purgeExpired());
+
+        assertEquals(1, tokenBlacklistRepository.count());
+        assertTrue(tokenBlacklistRepository.findByTokenHash(TokenDigest.hex("live-token")).isPresent());
+        assertEquals(5, meterRegistry.get("token.blacklist.purged").counter().count());
+        assertEquals(1, meterRegistry.get("token.blacklist.size").gauge().value());
+    }
+}
@@ -0,0 +1,118 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        loginThrottle = new LoginThrottle(new SimpleMeterRegistry(), 3, 5, Duration.ofMinutes(10), 10, 1000, now::get);
+    }
+
+    @Test
+    void reserve_RejectsUntilTheFailuresLeaveTheWindow() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.reserve("johndoe", "10.0.0.1");
+            loginThrottle.recordFailure();
+            now.addAndGet(Duration.ofMinutes(1).toMillis());
+        }
+
+        LoginThrottledException e = assertThrows(LoginThrottledException.class,
+                () -> loginThrottle.reserve("JohnDoe", "10.0.0.2"));
+        assertEquals(60, e.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> loginThrottle.reserve("janedoe", "10.0.0.1"));
+
+        now.addAndGet(Duration.ofMinutes(8).toMillis());
+        assertDoesNotThrow(() -> loginThrottle.reserve("johndoe", "10.0.0.1"));
+    }
+
+    @Test
+    void reserve_RejectsAnAddressTryingManyUsernames() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.reserve("user" + i, "10.0.0.1");
+            loginThrottle.recordFailure();
+        }
+
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.reserve("johndoe", "10.0.0.1"));
+        assertDoesNotThrow(() -> loginThrottle.reserve("johndoe", "10.0.0.2"));
+    }
+
+    @Test
+    void reserve_SuccessfulAndReleasedAttemptsAreNotCounted() {
+        for (int i = 0; i < 10; i++) {
+            loginThrottle.recordSuccess(loginThrottle.reserve("johndoe", "10.0.0.1"));
+            loginThrottle.release(loginThrottle.reserve("janedoe", "10.0.0.1"));
+        }
+
+        assertDoesNotThrow(() -> loginThrottle.reserve("johndoe", "10.0.0.1"));
+    }
+
+    @Test
+    void recordSuccess_KeepsTheFailuresOfOtherAttemptsCounted() {
+        for (int i = 0; i < 2; i++) {
+            loginThrottle.reserve("johndoe", "10.0.0.66");
+            loginThrottle.recordFailure();
+        }
+        loginThrottle.recordSuccess(loginThrottle.reserve("johndoe", "10.0.0.1"));
+        loginThrottle.reserve("johndoe", "10.0.0.66");
+        loginThrottle.recordFailure();
+
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.reserve("johndoe", "10.0.0.1"));
+    }
+
+    @Test
+    void reserve_CapsParallelAttemptsBeforeAnyHasFailed() throws Exception {
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch reserved = new CountDownLatch(threads);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        loginThrottle.reserve("johndoe", "10.0.0." + Thread.currentThread().getId());
+                        reserved.countDown();
+                        // Every password check is still running when the others are reserved
+                        reserved.await(5, TimeUnit.SECONDS);
+                        loginThrottle.recordFailure();
+                        return true;
+                    } catch (LoginThrottledException e) {
+                        reserved.countDown();
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Boolean> attempt : attempts) {
+                allowed += attempt.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertTrue(allowed <= 3, "allowed " + allowed + " attempts");
+            assertThrows(LoginThrottledException.class, () -> loginThrottle.reserve("johndoe", "10.0.0.1"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
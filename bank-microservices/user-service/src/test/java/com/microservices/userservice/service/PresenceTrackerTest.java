@@ -0,0 +1,63 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PresenceTrackerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PresenceTracker presenceTracker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(userRepository.findActiveUsernames()).thenReturn(List.of("janedoe"));
+        presenceTracker = new PresenceTracker(userRepository, new SimpleMeterRegistry(), 500);
+        presenceTracker.load();
+    }
+
+    @Test
+    void flush_WritesOnlyTheLatestStateOfEachUser() {
+        presenceTracker.markActive("johndoe");
+        presenceTracker.markInactive("johndoe");
+        presenceTracker.markActive("johndoe");
+        presenceTracker.markInactive("janedoe");
+
+        assertEquals(1, presenceTracker.getActiveCount());
+        assertEquals(2, presenceTracker.getPendingCount());
+
+        presenceTracker.flush();
+
+        verify(userRepository).updateActiveByUsernames(List.of("johndoe"), true);
+        verify(userRepository).updateActiveByUsernames(List.of("janedoe"), false);
+        verify(userRepository, never()).save(any());
+        assertEquals(0, presenceTracker.getPendingCount());
+    }
+
+    @Test
+    void flush_KeepsFailedChangesForTheNextFlush() {
+        when(userRepository.updateActiveByUsernames(List.of("johndoe"), true)).thenThrow(new IllegalStateException("down"));
+
+        presenceTracker.markActive("johndoe");
+        presenceTracker.flush();
+
+        assertEquals(1, presenceTracker.getPendingCount());
+
+        reset(userRepository);
+        presenceTracker.flush();
+
+        verify(userRepository).updateActiveByUsernames(List.of("johndoe"), true);
+        assertEquals(0, presenceTracker.getPendingCount());
+    }
+}
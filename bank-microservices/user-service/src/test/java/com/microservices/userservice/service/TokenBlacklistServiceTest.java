@@ -0,0 +1,86 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.dto.TokenRevocationDTO;
+import com.microservices.userservice.dto.TokenRevocationFeedDTO;
+import com.microservices.userservice.model.TokenBlacklist;
+import com.microservices.userservice.repository.TokenBlacklistRepository;
+import com.microservices.userservice.util.JwtTokenProvider;
+import com.microservices.userservice.util.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenBlacklistServiceTest {
+
+    @Mock
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Mock
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @InjectMocks
+    private TokenBlacklistService tokenBlacklistService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetRevocationsSince_SendsRecentRowsUpToTheVersionAgain() {
+        LocalDateTime now = LocalDateTime.now();
+        TokenBlacklist lateCommit = new TokenBlacklist(4L, TokenDigest.hex("late-token"), now.plusMinutes(1), now);
+        TokenBlacklist next = new TokenBlacklist(6L, TokenDigest.hex("next-token"), now.plusMinutes(1), now);
+        when(tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any())).thenReturn(List.of(next));
+        when(tokenBlacklistRepository.findByBlacklistedAtGreaterThanEqualAndIdLessThanEqualOrderByIdDesc(any(), eq(5L),
+                eq(PageRequest.of(0, 1)))).thenReturn(List.of(lateCommit));
+
+        TokenRevocationFeedDTO feed = tokenBlacklistService.getRevocationsSince(5, 2);
+
+        assertEquals(6, feed.getVersion());
+        assertFalse(feed.isHasMore());
+        assertEquals(List.of(TokenDigest.hex("late-token"), TokenDigest.hex("next-token")),
+                feed.getRevocations().stream().map(TokenRevocationDTO::getTokenHash).toList());
+    }
+
+    @Test
+    void testGetRevocationsSince_FullPageLeavesNoRoomForRecentRows() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenBlacklist> rows = List.of(
+                new TokenBlacklist(6L, TokenDigest.hex("first-token"), now.plusMinutes(1), now),
+                new TokenBlacklist(7L, TokenDigest.hex("second-token"), now.plusMinutes(1), now));
+        when(tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any())).thenReturn(rows);
+
+        TokenRevocationFeedDTO feed = tokenBlacklistService.getRevocationsSince(5, 2);
+
+        assertEquals(7, feed.getVersion());
+        assertTrue(feed.isHasMore());
+        assertEquals(2, feed.getRevocations().size());
+        verify(tokenBlacklistRepository, never()).findByBlacklistedAtGreaterThanEqualAndIdLessThanEqualOrderByIdDesc(any(), any(), any());
+    }
+
+    @Test
+    void testGetRevocationsSince_FirstPageHasNoOverlap() {
+        when(tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of());
+
+        TokenRevocationFeedDTO feed = tokenBlacklistService.getRevocationsSince(0, 1000);
+
+        assertEquals(0, feed.getVersion());
+        assertFalse(feed.isHasMore());
+        verify(tokenBlacklistRepository, never()).findByBlacklistedAtGreaterThanEqualAndIdLessThanEqualOrderByIdDesc(any(), any(), any());
+    }
+}
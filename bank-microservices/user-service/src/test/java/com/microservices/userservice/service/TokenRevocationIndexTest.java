@@ -0,0 +1,94 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.model.TokenBlacklist;
+import com.microservices.userservice.repository.TokenBlacklistRepository;
+import com.microservices.userservice.util.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationIndexTest {
+
+    @Mock
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenRevocationIndex = new TokenRevocationIndex(tokenBlacklistRepository, meterRegistry, 1000, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void testIsRevoked_AnswersFromTheIndexWithoutDatabase() {
+        tokenRevocationIndex.add(TokenDigest.hex("revoked-token"), LocalDateTime.now().plusMinutes(1));
+
+        assertTrue(tokenRevocationIndex.isRevoked("revoked-token"));
+        assertFalse(tokenRevocationIndex.isRevoked("other-token"));
+        verify(tokenBlacklistRepository, never()).findByTokenHash(any());
+        assertEquals(1, meterRegistry.get("token.revocation.lookups").tag("result", "revoked").counter().count());
+    }
+
+    @Test
+    void testLoad_AddsBlacklistedTokensAndSkipsExpiredOnes() {
+        LocalDateTime now = LocalDateTime.now();
+        when(tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(
+                new TokenBlacklist(1L, TokenDigest.hex("live-token"), now.plusMinutes(1), now),
+                new TokenBlacklist(2L, TokenDigest.hex("expired-token"), now.minusSeconds(1), now)));
+        when(tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenReturn(List.of());
+
+        tokenRevocationIndex.load();
+        tokenRevocationIndex.refresh();
+
+        assertTrue(tokenRevocationIndex.isRevoked("live-token"));
+        assertFalse(tokenRevocationIndex.isRevoked("expired-token"));
+        verify(tokenBlacklistRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any());
+        verify(tokenBlacklistRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(2L), any());
+    }
+
+    @Test
+    void testRefresh_PicksUpRowCommittedAfterAHigherId() {
+        LocalDateTime now = LocalDateTime.now();
+        when(tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(
+                new TokenBlacklist(2L, TokenDigest.hex("second-token"), now.plusMinutes(1), now)));
+        when(tokenBlacklistRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenReturn(List.of());
+        tokenRevocationIndex.load();
+
+        // The row with ID 1 was still uncommitted when ID 2 was read
+        when(tokenBlacklistRepository.findByBlacklistedAtGreaterThanEqualAndIdLessThanEqual(any(), eq(2L))).thenReturn(List.of(
+                new TokenBlacklist(1L, TokenDigest.hex("first-token"), now.plusMinutes(1), now),
+                new TokenBlacklist(2L, TokenDigest.hex("second-token"), now.plusMinutes(1), now)));
+        tokenRevocationIndex.refresh();
+
+        assertTrue(tokenRevocationIndex.isRevoked("first-token"));
+        assertTrue(tokenRevocationIndex.isRevoked("second-token"));
+        assertEquals(2, meterRegistry.get("token.revocation.index.size").gauge().value());
+    }
+
+    @Test
+    void testPurgeExpired_DropsTokensOnceExpired() throws InterruptedException {
+        tokenRevocationIndex.add(TokenDigest.hex("short-lived-token"), LocalDateTime.now().plusNanos(50_000_000));
+        assertTrue(tokenRevocationIndex.isRevoked("short-lived-token"));
+
+        Thread.sleep(100);
+        tokenRevocationIndex.purgeExpired();
+
+        assertFalse(tokenRevocationIndex.isRevoked("short-lived-token"));
+        assertEquals(0, meterRegistry.get("token.revocation.index.size").gauge().value());
+        verify(tokenBlacklistRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+}
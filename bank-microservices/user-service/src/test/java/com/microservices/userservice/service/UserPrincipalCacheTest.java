@@ -0,0 +1,57 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.dto.UserPrincipalDTO;
+import com.microservices.userservice.enums.Role;
+import com.microservices.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserPrincipalCache userPrincipalCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userPrincipalCache = new UserPrincipalCache(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void loadPrincipal_ReadsTheUserOnceUntilEvicted() {
+        when(userRepository.findPrincipalByUsername("johndoe")).thenReturn(Optional.of(new UserPrincipalDTO("johndoe", Role.USER)));
+
+        UserPrincipalDTO principal = userPrincipalCache.loadPrincipal("johndoe");
+        userPrincipalCache.loadPrincipal("johndoe");
+        userPrincipalCache.evict("johndoe");
+        userPrincipalCache.loadPrincipal("johndoe");
+
+        assertEquals("johndoe", principal.getUsername());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+        assertNull(principal.getPassword());
+        verify(userRepository, times(2)).findPrincipalByUsername("johndoe");
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void loadPrincipal_UnknownUserIsNotCached() {
+        when(userRepository.findPrincipalByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userPrincipalCache.loadPrincipal("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userPrincipalCache.loadPrincipal("ghost"));
+
+        verify(userRepository, times(2)).findPrincipalByUsername("ghost");
+    }
+}
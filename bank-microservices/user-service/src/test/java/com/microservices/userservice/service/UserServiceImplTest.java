@@ -40,6 +40,12 @@ class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private IRefreshTokenService refreshTokenService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -212,6 +218,8 @@ class UserServiceImplTest {
         verify(userRepository).save(userArgumentCaptor.capture());
         assertEquals("encodedNewPassword", userArgumentCaptor.getValue().getPassword());
         assertEquals("john.new@example.com", userArgumentCaptor.getValue().getEmail());
+        verify(userPrincipalCache).evict(anyString());
+        verify(refreshTokenService).revokeAll(1L);
     }
 
 